@@ -0,0 +1,121 @@
+-- Run from the searchengine directory (MySQL 8.0.18+ or MariaDB 10.6+):
+-- mysql -uroot -p --raw -vvv < benchmark/hot-path-indexes.sql > benchmark/results/<server>.txt
+
+DROP DATABASE IF EXISTS search_engine_benchmark;
+CREATE DATABASE search_engine_benchmark;
+USE search_engine_benchmark;
+
+SOURCE src/main/resources/db/migration/mysql/V1__initial_schema.sql;
+SOURCE src/main/resources/db/migration/mysql/V2__hot_path_indexes.sql;
+SOURCE src/main/resources/db/migration/mysql/V3__site_generations.sql;
+SOURCE src/main/resources/db/migration/mysql/V4__partition_lemma_and_index_by_site.sql;
+SOURCE src/main/resources/db/migration/mysql/V5__page_statistics.sql;
+SOURCE src/main/resources/db/migration/mysql/V6__drop_page_lemma_count.sql;
+
+SET @sites = 10;
+SET @pages_per_site = 20000;
+SET @lemmas_per_site = 20000;
+SET @postings_per_page = 60;
+SET @frontier_urls_per_site = 40000;
+
+CREATE TABLE seq (n INT NOT NULL PRIMARY KEY) ENGINE = InnoDB;
+INSERT INTO seq (n)
+SELECT 1 + d0.n + d1.n * 10 + d2.n * 100 + d3.n * 1000 + d4.n * 10000 + d5.n * 100000
+FROM (SELECT 0 AS n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+      UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) d0
+CROSS JOIN (SELECT 0 AS n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+      UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) d1
+CROSS JOIN (SELECT 0 AS n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+      UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) d2
+CROSS JOIN (SELECT 0 AS n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+      UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) d3
+CROSS JOIN (SELECT 0 AS n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+      UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) d4
+CROSS JOIN (SELECT 0 AS n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+      UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) d5;
+
+INSERT INTO site (id, status, status_time, url, name, generation, generation_state)
+SELECT n, 'INDEXED', NOW(), CONCAT('https://site', n, '.example'), CONCAT('site', n), 1, 'LIVE'
+FROM seq WHERE n <= @sites;
+
+SET @site_partitions = (
+    SELECT GROUP_CONCAT(CONCAT('PARTITION p', id, ' VALUES IN (', id, ')') ORDER BY id SEPARATOR ', ')
+    FROM site);
+SET @alter_statement = CONCAT('ALTER TABLE lemma ADD PARTITION (', @site_partitions, ')');
+PREPARE alter_statement FROM @alter_statement;
+EXECUTE alter_statement;
+SET @alter_statement = CONCAT('ALTER TABLE `index` ADD PARTITION (', @site_partitions, ')');
+PREPARE alter_statement FROM @alter_statement;
+EXECUTE alter_statement;
+DEALLOCATE PREPARE alter_statement;
+
+INSERT INTO page (id, site_id, path, code, content, text, content_hash, token_count)
+SELECT (s.id - 1) * @pages_per_site + p.n, s.id, CONCAT('/catalog/', p.n DIV 100, '/item-', p.n, '.html'), 200,
+       REPEAT(UNHEX(MD5(p.n)), 32), REPEAT('товар описание характеристики ', 10), SHA2(p.n, 256), 0
+FROM site s
+CROSS JOIN seq p
+WHERE p.n <= @pages_per_site;
+
+INSERT INTO lemma (id, site_id, lemma, frequency)
+SELECT (s.id - 1) * @lemmas_per_site + l.n, s.id, CONCAT('lemma', l.n), 0
+FROM site s
+CROSS JOIN seq l
+WHERE l.n <= @lemmas_per_site;
+
+INSERT INTO `index` (site_id, page_id, lemma_id, `rank`)
+SELECT site_id, page_id, lemma_id, SUM(`rank`)
+FROM (SELECT p.site_id, p.id AS page_id,
+             (p.site_id - 1) * @lemmas_per_site + 1
+                 + FLOOR(POW(((p.id * 7919 + k.n * 104729) % 100003) / 100003, 3) * (@lemmas_per_site - 1)) AS lemma_id,
+             1 + (p.id + k.n) % 5 AS `rank`
+      FROM page p
+      CROSS JOIN seq k
+      WHERE k.n <= @postings_per_page) postings
+GROUP BY site_id, page_id, lemma_id;
+
+UPDATE lemma l
+    JOIN (SELECT lemma_id, COUNT(*) AS pages FROM `index` GROUP BY lemma_id) c ON c.lemma_id = l.id
+SET l.frequency = c.pages;
+
+UPDATE page p
+    JOIN (SELECT page_id, SUM(`rank`) AS token_count FROM `index` GROUP BY page_id) c ON c.page_id = p.id
+SET p.token_count = c.token_count;
+
+INSERT INTO frontier_url (site_id, fingerprint, url, priority, depth, status)
+SELECT s.id, f.n, CONCAT(s.url, '/catalog/', f.n DIV 100, '/item-', f.n, '.html'), 1.0 / (1 + f.n DIV 1000),
+       1 + f.n DIV 10000, IF(f.n <= @pages_per_site, 'DONE', 'PENDING')
+FROM site s
+CROSS JOIN seq f
+WHERE f.n <= @frontier_urls_per_site;
+
+DROP TABLE seq;
+
+ANALYZE TABLE site, page, lemma, `index`, frontier_url;
+
+SELECT 'site' AS table_name, COUNT(*) AS table_rows FROM site
+UNION ALL SELECT 'page', COUNT(*) FROM page
+UNION ALL SELECT 'lemma', COUNT(*) FROM lemma
+UNION ALL SELECT 'index', COUNT(*) FROM `index`
+UNION ALL SELECT 'frontier_url', COUNT(*) FROM frontier_url;
+
+-- with the V2 indexes
+SOURCE benchmark/hot-path-queries.sql;
+
+ALTER TABLE `index`
+    DROP INDEX idx_index_lemma_page_rank,
+    DROP INDEX idx_index_page_lemma_rank;
+ALTER TABLE page
+    ADD INDEX fk_page_site (site_id),
+    ADD INDEX path (path(256));
+ALTER TABLE page
+    DROP INDEX idx_page_site_path;
+ALTER TABLE lemma
+    DROP INDEX idx_lemma_site_frequency;
+ALTER TABLE frontier_url
+    DROP INDEX idx_frontier_url_site_status;
+ANALYZE TABLE page, lemma, `index`, frontier_url;
+
+-- without the V2 indexes
+SOURCE benchmark/hot-path-queries.sql;
+
+DROP DATABASE search_engine_benchmark;
@@ -0,0 +1,113 @@
+SET SESSION group_concat_max_len = 16777216;
+SET @explain = IF(VERSION() LIKE '%MariaDB%', 'ANALYZE FORMAT=JSON ', 'EXPLAIN ANALYZE ');
+SET @site_id = 3;
+SET @site_ids = (SELECT GROUP_CONCAT(id) FROM site WHERE generation_state = 'LIVE');
+SET @search_page_id = (SELECT id FROM page WHERE site_id = @site_id AND path = '/catalog/100/item-10003.html');
+
+SELECT l.id, l.lemma, l.frequency INTO @rare_lemma_id, @rare_lemma, @rare_frequency
+FROM `index` i JOIN lemma l ON l.id = i.lemma_id AND l.site_id = i.site_id
+WHERE i.site_id = @site_id AND i.page_id = @search_page_id AND l.frequency >= 20
+ORDER BY l.frequency LIMIT 1;
+SELECT l.id, l.lemma, l.frequency INTO @middle_lemma_id, @middle_lemma, @middle_frequency
+FROM `index` i JOIN lemma l ON l.id = i.lemma_id AND l.site_id = i.site_id
+WHERE i.site_id = @site_id AND i.page_id = @search_page_id
+ORDER BY l.frequency LIMIT 1 OFFSET 50;
+SELECT l.id, l.lemma, l.frequency INTO @common_lemma_id, @common_lemma, @common_frequency
+FROM `index` i JOIN lemma l ON l.id = i.lemma_id AND l.site_id = i.site_id
+WHERE i.site_id = @site_id AND i.page_id = @search_page_id
+ORDER BY l.frequency DESC LIMIT 1;
+SELECT @rare_lemma, @rare_frequency, @middle_lemma, @middle_frequency, @common_lemma, @common_frequency;
+
+-- search: LemmaRepository.findLemmaBySiteInAndLemmaInOrderByFrequencyAsc
+SET @query = CONCAT(@explain, 'SELECT l.id, l.site_id, l.lemma, l.frequency FROM lemma l ',
+    'WHERE l.site_id IN (', @site_ids, ') AND l.lemma IN (',
+    QUOTE(@rare_lemma), ', ', QUOTE(@middle_lemma), ', ', QUOTE(@common_lemma), ') ORDER BY l.frequency');
+PREPARE query FROM @query;
+EXECUTE query;
+
+-- search: JdbcIndexStore SELECT_POSTINGS_SQL for the rarest lemma
+SET @query = CONCAT(@explain, 'SELECT page_id, `rank` FROM `index` ',
+    'WHERE site_id = ', @site_id, ' AND lemma_id = ', @rare_lemma_id);
+PREPARE query FROM @query;
+EXECUTE query;
+
+-- search: JdbcIndexStore SELECT_CANDIDATE_POSTINGS_SQL_PREFIX for the next lemma
+SET @candidates = (SELECT GROUP_CONCAT(page_id) FROM `index` WHERE site_id = @site_id AND lemma_id = @rare_lemma_id);
+SET @query = CONCAT(@explain, 'SELECT page_id, `rank` FROM `index` ',
+    'WHERE site_id = ', @site_id, ' AND lemma_id = ', @middle_lemma_id, ' AND page_id IN (', @candidates, ')');
+PREPARE query FROM @query;
+EXECUTE query;
+
+-- search: JdbcIndexStore SELECT_CANDIDATE_POSTINGS_SQL_PREFIX for the most frequent lemma
+SET @candidates = (SELECT GROUP_CONCAT(page_id) FROM `index`
+    WHERE site_id = @site_id AND lemma_id = @middle_lemma_id AND FIND_IN_SET(page_id, @candidates));
+SET @query = CONCAT(@explain, 'SELECT page_id, `rank` FROM `index` ',
+    'WHERE site_id = ', @site_id, ' AND lemma_id = ', @common_lemma_id, ' AND page_id IN (', @candidates, ')');
+PREPARE query FROM @query;
+EXECUTE query;
+
+-- search: SELECT_POSTINGS_SQL for the most frequent lemma, the cost rarest-first ordering avoids
+SET @query = CONCAT(@explain, 'SELECT page_id, `rank` FROM `index` ',
+    'WHERE site_id = ', @site_id, ' AND lemma_id = ', @common_lemma_id);
+PREPARE query FROM @query;
+EXECUTE query;
+
+-- search: JdbcIndexStore SELECT_PAGE_TOKEN_COUNTS_SQL_PREFIX
+SET @query = CONCAT(@explain, 'SELECT id, token_count FROM page WHERE id IN (', @candidates, ')');
+PREPARE query FROM @query;
+EXECUTE query;
+
+-- indexing: PageRepository.findPageByPathAndSite
+SET @query = CONCAT(@explain, 'SELECT * FROM page ',
+    'WHERE path = ''/catalog/100/item-10003.html'' AND site_id = ', @site_id);
+PREPARE query FROM @query;
+EXECUTE query;
+
+-- indexing: JdbcIndexStore SELECT_LEMMA_IDS_SQL_PREFIX for the lemmas of one page
+SET @page_lemmas = (SELECT GROUP_CONCAT(QUOTE(l.lemma)) FROM `index` i
+    JOIN lemma l ON l.id = i.lemma_id AND l.site_id = i.site_id
+    WHERE i.site_id = @site_id AND i.page_id = @search_page_id);
+SET @query = CONCAT(@explain, 'SELECT id, lemma FROM lemma ',
+    'WHERE site_id = ', @site_id, ' AND lemma IN (', @page_lemmas, ')');
+PREPARE query FROM @query;
+EXECUTE query;
+
+-- warm-up: LemmaRepository.findLemmaBySite ordered by frequency
+SET @query = CONCAT(@explain, 'SELECT id, site_id, lemma, frequency FROM lemma ',
+    'WHERE site_id = ', @site_id, ' ORDER BY frequency DESC LIMIT 5000');
+PREPARE query FROM @query;
+EXECUTE query;
+
+-- frontier: FrontierUrlRepository.findFrontierUrlsBySiteAndStatus
+SET @query = CONCAT(@explain, 'SELECT * FROM frontier_url WHERE site_id = ', @site_id, ' AND status = ''PENDING''');
+PREPARE query FROM @query;
+EXECUTE query;
+
+-- frontier: FrontierUrlRepository.findUrlsBySite
+SET @query = CONCAT(@explain, 'SELECT url FROM frontier_url WHERE site_id = ', @site_id);
+PREPARE query FROM @query;
+EXECUTE query;
+
+-- frontier: FrontierUrlBatchRepository MARK_DONE_SQL
+SET @query = CONCAT(@explain, 'UPDATE frontier_url SET status = ''DONE'' ',
+    'WHERE site_id = ', @site_id, ' AND fingerprint = 30000');
+PREPARE query FROM @query;
+EXECUTE query;
+UPDATE frontier_url SET status = 'PENDING' WHERE site_id = @site_id AND fingerprint = 30000;
+
+-- statistics: SiteRepository.findSitesByGenerationStateNot
+SET @query = CONCAT(@explain, 'SELECT * FROM site WHERE generation_state <> ''RETIRED''');
+PREPARE query FROM @query;
+EXECUTE query;
+
+-- statistics: PageRepository.countPagesBySite
+SET @query = CONCAT(@explain, 'SELECT COUNT(*) FROM page WHERE site_id = ', @site_id);
+PREPARE query FROM @query;
+EXECUTE query;
+
+-- statistics: LemmaRepository.countLemmasBySite
+SET @query = CONCAT(@explain, 'SELECT COUNT(*) FROM lemma WHERE site_id = ', @site_id);
+PREPARE query FROM @query;
+EXECUTE query;
+
+DEALLOCATE PREPARE query;
@@ -13,4 +13,9 @@ public class ConnectionPropertiesConfig {
 
     private String userAgent;
     private String referer;
+    private int connectTimeout = 10_000;
+    private int readTimeout = 30_000;
+    private int maxBodySize = 2 * 1024 * 1024;
+    private int maxConnectionsPerHost = 8;
+    private int ioThreads = 4;
 }
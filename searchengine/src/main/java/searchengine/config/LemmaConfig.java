@@ -7,17 +7,52 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Configuration
 public class LemmaConfig {
 
+    private final CompletableFuture<LuceneMorphology> englishLuceneMorphology =
+            loadAsync(EnglishLuceneMorphology::new);
+    private final CompletableFuture<LuceneMorphology> russianLuceneMorphology =
+            loadAsync(RussianLuceneMorphology::new);
+
     @Bean
     public LuceneMorphology englishLuceneMorphology() throws IOException {
-        return new EnglishLuceneMorphology();
+        return await(englishLuceneMorphology);
     }
 
     @Bean
     public LuceneMorphology russianLuceneMorphology() throws IOException {
-        return new RussianLuceneMorphology();
+        return await(russianLuceneMorphology);
+    }
+
+    private static CompletableFuture<LuceneMorphology> loadAsync(MorphologyLoader morphologyLoader) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return morphologyLoader.load();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static LuceneMorphology await(CompletableFuture<LuceneMorphology> luceneMorphology) throws IOException {
+        try {
+            return luceneMorphology.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    private interface MorphologyLoader {
+
+        LuceneMorphology load() throws IOException;
     }
 }
@@ -0,0 +1,20 @@
+package searchengine.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "pipeline-settings")
+public class PipelineConfig {
+
+    private int fetchThreads = 2;
+    private int parseThreads = Runtime.getRuntime().availableProcessors();
+    private int lemmaThreads = Runtime.getRuntime().availableProcessors();
+    private int persistThreads = 1;
+    private int queueCapacity = 256;
+    private int persistBatchSize = 20;
+}
@@ -0,0 +1,17 @@
+package searchengine.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "search-settings")
+public class SearchConfig {
+
+    private String backend = "mysql";
+    private String segmentDirectory = "segments";
+    private double lengthNormalization = 0.75;
+}
@@ -8,4 +8,7 @@ import lombok.Setter;
 public class SiteConfig {
     private String url;
     private String name;
+    private Double requestsPerSecond;
+    private Double weight;
+    private Integer maxConcurrentFetches;
 }
@@ -13,4 +13,17 @@ import java.util.List;
 @ConfigurationProperties(prefix = "indexing-settings")
 public class SitesListConfig {
     private List<SiteConfig> siteConfigs;
+    private int maxConcurrentFetches = Runtime.getRuntime().availableProcessors();
+    private double defaultRequestsPerSecond = 2;
+    private int burst = 1;
+    private boolean respectRobotsTxt = true;
+    private int frontierBatchSize = 500;
+    private long frontierFlushInterval = 5000;
+    private boolean sitemapSeeding = true;
+    private int maxSitemaps = 50;
+    private int maxSitemapUrls = 50000;
+    private boolean lemmaDictionary = true;
+    private long lemmaFlushInterval = 10000;
+    private int lemmaFlushBatchSize = 20000;
+    private long generationGcInterval = 60000;
 }
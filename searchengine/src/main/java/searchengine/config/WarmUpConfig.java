@@ -0,0 +1,20 @@
+package searchengine.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "warm-up-settings")
+public class WarmUpConfig {
+
+    private boolean enabled = true;
+    private int preloadLemmas = 5000;
+    private List<String> queries = new ArrayList<>();
+}
@@ -5,7 +5,9 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import searchengine.dto.search.SearchResultsResponse;
+import searchengine.dto.indexing.IndexingMode;
 import searchengine.dto.indexing.IndexingResponse;
+import searchengine.dto.pipeline.PipelineStatisticsResponse;
 import searchengine.dto.statistics.StatisticsResponse;
 import searchengine.exception.ErrorCustomException;
 import searchengine.service.IndexingService;
@@ -35,8 +37,9 @@ public class ApiController {
     }
 
     @GetMapping("/startIndexing")
-    public ResponseEntity<IndexingResponse> startIndexing() throws ErrorCustomException {
-        return ResponseEntity.ok(indexingService.indexSites());
+    public ResponseEntity<IndexingResponse> startIndexing(@RequestParam(value = "mode", defaultValue = "FULL")
+                                                          IndexingMode mode) throws ErrorCustomException {
+        return ResponseEntity.ok(indexingService.indexSites(mode));
     }
 
     @GetMapping("/stopIndexing")
@@ -49,6 +52,11 @@ public class ApiController {
         return ResponseEntity.ok(indexingService.indexPage(url));
     }
 
+    @GetMapping("/indexingPipeline")
+    public ResponseEntity<PipelineStatisticsResponse> indexingPipeline() {
+        return ResponseEntity.ok(indexingService.getPipelineStatistics());
+    }
+
     @GetMapping("/search")
     public ResponseEntity<SearchResultsResponse> search(@RequestParam("query") String query,
                                                         @RequestParam("site") String site,
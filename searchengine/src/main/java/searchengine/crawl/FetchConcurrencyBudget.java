@@ -0,0 +1,79 @@
+package searchengine.crawl;
+
+import org.springframework.stereotype.Component;
+import searchengine.config.SiteConfig;
+import searchengine.config.SitesListConfig;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class FetchConcurrencyBudget {
+
+    private final SitesListConfig sitesListConfig;
+    private final Map<Integer, SiteFetchShare> siteShares = new LinkedHashMap<>();
+
+    public FetchConcurrencyBudget(SitesListConfig sitesListConfig) {
+        this.sitesListConfig = sitesListConfig;
+    }
+
+    public synchronized SiteFetchShare register(Integer siteId, SiteConfig siteConfig) {
+        double weight = siteConfig.getWeight() != null && siteConfig.getWeight() > 0 ? siteConfig.getWeight() : 1;
+        int maxConcurrentFetches = siteConfig.getMaxConcurrentFetches() != null
+                && siteConfig.getMaxConcurrentFetches() > 0 ? siteConfig.getMaxConcurrentFetches() : Integer.MAX_VALUE;
+
+        SiteFetchShare siteShare = new SiteFetchShare(weight, maxConcurrentFetches);
+        siteShares.put(siteId, siteShare);
+        rebalance();
+        return siteShare;
+    }
+
+    public synchronized void unregister(Integer siteId) {
+        if (siteShares.remove(siteId) != null) {
+            rebalance();
+        }
+    }
+
+    private int getMaxConcurrentFetches() {
+        return Math.max(1, sitesListConfig.getMaxConcurrentFetches());
+    }
+
+    private void rebalance() {
+        List<SiteFetchShare> unassignedShares = new ArrayList<>(siteShares.values());
+        int remainingFetches = getMaxConcurrentFetches();
+
+        boolean capped = true;
+        while (capped && !unassignedShares.isEmpty()) {
+            capped = false;
+            double totalWeight = unassignedShares.stream().mapToDouble(SiteFetchShare::getWeight).sum();
+            for (SiteFetchShare siteShare : List.copyOf(unassignedShares)) {
+                double fairShare = remainingFetches * siteShare.getWeight() / totalWeight;
+                if (siteShare.getMaxConcurrentFetches() <= fairShare) {
+                    siteShare.setLimit(siteShare.getMaxConcurrentFetches());
+                    remainingFetches -= siteShare.getMaxConcurrentFetches();
+                    unassignedShares.remove(siteShare);
+                    capped = true;
+                }
+            }
+        }
+
+        double totalWeight = unassignedShares.stream().mapToDouble(SiteFetchShare::getWeight).sum();
+        Map<SiteFetchShare, Double> remainders = new LinkedHashMap<>();
+        for (SiteFetchShare siteShare : unassignedShares) {
+            double quota = remainingFetches * siteShare.getWeight() / totalWeight;
+            siteShare.setLimit((int) quota);
+            remainders.put(siteShare, quota - (int) quota);
+        }
+
+        int leftoverFetches = remainingFetches - unassignedShares.stream().mapToInt(SiteFetchShare::getLimit).sum();
+        List<SiteFetchShare> byRemainder = new ArrayList<>(unassignedShares);
+        byRemainder.sort(Comparator.comparingDouble(remainders::get).reversed());
+        for (int i = 0; i < leftoverFetches && i < byRemainder.size(); i++) {
+            SiteFetchShare siteShare = byRemainder.get(i);
+            siteShare.setLimit(siteShare.getLimit() + 1);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package searchengine.crawl;
+
+import lombok.Getter;
+
+import java.util.Comparator;
+
+@Getter
+public class FrontierEntry {
+
+    public static final double DEFAULT_PRIORITY = 0.5;
+    public static final double ROOT_PRIORITY = 1.0;
+    public static final Comparator<FrontierEntry> CRAWL_ORDER = Comparator
+            .comparingDouble(FrontierEntry::getPriority).reversed()
+            .thenComparingInt(FrontierEntry::getDepth)
+            .thenComparing(Comparator.comparingLong(FrontierEntry::getLastModified).reversed());
+    private final String url;
+    private final double priority;
+    private final long lastModified;
+    private final int depth;
+
+    public FrontierEntry(String url, double priority, long lastModified, int depth) {
+        this.url = url;
+        this.priority = Math.max(0, Math.min(1, priority));
+        this.lastModified = lastModified;
+        this.depth = depth;
+    }
+
+    public static FrontierEntry root(String url) {
+        return new FrontierEntry(url, ROOT_PRIORITY, 0, 0);
+    }
+
+    public static FrontierEntry link(String url, int depth) {
+        return new FrontierEntry(url, DEFAULT_PRIORITY, 0, depth);
+    }
+
+    public FrontierEntry withUrl(String url) {
+        return new FrontierEntry(url, priority, lastModified, depth);
+    }
+}
@@ -0,0 +1,87 @@
+package searchengine.crawl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+class HostTokenBucket {
+
+    private static final double MIN_REQUESTS_PER_SECOND = 0.05;
+    private static final double BACKOFF_FACTOR = 0.5;
+    private static final double RECOVERY_STEP = 0.05;
+    private final double baseRate;
+    private final int burst;
+    private final Deque<CompletableFuture<Void>> waitingPermits = new ArrayDeque<>();
+    private double rate;
+    private double tokens;
+    private long lastRefillTime;
+    private boolean releaseScheduled;
+
+    HostTokenBucket(double requestsPerSecond, int burst) {
+        baseRate = Math.max(MIN_REQUESTS_PER_SECOND, requestsPerSecond);
+        this.burst = Math.max(1, burst);
+        rate = baseRate;
+        tokens = this.burst;
+        lastRefillTime = System.nanoTime();
+    }
+
+    synchronized CompletableFuture<Void> acquire() {
+        refill();
+        if (waitingPermits.isEmpty() && tokens >= 1) {
+            tokens -= 1;
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> permit = new CompletableFuture<>();
+        waitingPermits.add(permit);
+        scheduleRelease();
+        return permit;
+    }
+
+    synchronized void backOff() {
+        refill();
+        rate = Math.max(MIN_REQUESTS_PER_SECOND, rate * BACKOFF_FACTOR);
+        tokens = Math.min(tokens, 0);
+    }
+
+    synchronized void recover() {
+        if (rate < baseRate) {
+            refill();
+            rate = Math.min(baseRate, rate + baseRate * RECOVERY_STEP);
+        }
+    }
+
+    private void releaseWaitingPermits() {
+        List<CompletableFuture<Void>> readyPermits = new ArrayList<>();
+        synchronized (this) {
+            releaseScheduled = false;
+            refill();
+            while (!waitingPermits.isEmpty() && tokens >= 1) {
+                tokens -= 1;
+                readyPermits.add(waitingPermits.poll());
+            }
+            scheduleRelease();
+        }
+
+        readyPermits.forEach(permit -> permit.complete(null));
+    }
+
+    private void scheduleRelease() {
+        if (releaseScheduled || waitingPermits.isEmpty()) {
+            return;
+        }
+
+        releaseScheduled = true;
+        long delay = (long) Math.ceil((1 - tokens) / rate * 1_000_000_000L);
+        CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS).execute(this::releaseWaitingPermits);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefillTime) * rate / 1_000_000_000L);
+        lastRefillTime = now;
+    }
+}
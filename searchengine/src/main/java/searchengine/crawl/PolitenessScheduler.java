@@ -0,0 +1,200 @@
+package searchengine.crawl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import searchengine.config.ConnectionPropertiesConfig;
+import searchengine.config.SiteConfig;
+import searchengine.config.SitesListConfig;
+import searchengine.fetch.FetchedResource;
+import searchengine.fetch.PageFetcher;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PolitenessScheduler {
+
+    private static final int MAX_ROBOTS_TXT_SIZE = 512 * 1024;
+    private final PageFetcher pageFetcher;
+    private final SitesListConfig sitesListConfig;
+    private final ConnectionPropertiesConfig connectionPropertiesConfig;
+    private final Map<String, CompletableFuture<HostState>> hostStates = new ConcurrentHashMap<>();
+
+    public CompletableFuture<Void> acquire(String url) {
+        Optional<String> hostKey = getHostKey(url);
+        if (hostKey.isEmpty()) {
+            return CompletableFuture.failedFuture(new MalformedURLException(url));
+        }
+
+        return getHostState(hostKey.get()).thenCompose(hostState -> hostState.tokenBucket.acquire());
+    }
+
+    public void registerResponse(String url, int codeStatus) {
+        Optional<HostState> hostState = getLoadedHostState(url);
+        if (hostState.isEmpty()) {
+            return;
+        }
+
+        if (codeStatus == 429 || codeStatus == 503) {
+            hostState.get().tokenBucket.backOff();
+        } else if (codeStatus < 400) {
+            hostState.get().tokenBucket.recover();
+        }
+    }
+
+    public boolean isAllowed(String url) {
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        if (uri.getRawQuery() != null) {
+            path = path + "?" + uri.getRawQuery();
+        }
+
+        String finalPath = path;
+        Optional<String> hostKey = getHostKey(url);
+        if (hostKey.isEmpty()) {
+            return false;
+        }
+
+        return awaitHostState(hostKey.get())
+                .map(hostState -> hostState.robotsRules.isAllowed(finalPath))
+                .orElse(true);
+    }
+
+    public CompletableFuture<RobotsRules> getRobotsRules(String url) {
+        return getHostKey(url)
+                .map(hostKey -> getHostState(hostKey).thenApply(hostState -> hostState.robotsRules))
+                .orElseGet(() -> CompletableFuture.completedFuture(RobotsRules.allowAll()));
+    }
+
+    public void reset() {
+        hostStates.clear();
+    }
+
+    private Optional<HostState> getLoadedHostState(String url) {
+        return getHostKey(url)
+                .map(hostStates::get)
+                .map(hostState -> hostState.getNow(null));
+    }
+
+    private Optional<HostState> awaitHostState(String hostKey) {
+        long timeout = (long) connectionPropertiesConfig.getConnectTimeout()
+                + connectionPropertiesConfig.getReadTimeout();
+        try {
+            return Optional.of(getHostState(hostKey).get(timeout, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            log.warn("Правила robots.txt хоста {} не загружены за {} мс, ссылка проверяется без них",
+                    hostKey, timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Ожидание правил robots.txt хоста {} прервано, ссылка проверяется без них", hostKey);
+        } catch (ExecutionException e) {
+            log.warn("Правила robots.txt хоста {} недоступны, ссылка проверяется без них", hostKey, e.getCause());
+        }
+
+        return Optional.empty();
+    }
+
+    private CompletableFuture<HostState> getHostState(String hostKey) {
+        CompletableFuture<HostState> hostState = hostStates.get(hostKey);
+        if (hostState != null) {
+            return hostState;
+        }
+
+        CompletableFuture<HostState> newHostState = new CompletableFuture<>();
+        hostState = hostStates.putIfAbsent(hostKey, newHostState);
+        if (hostState != null) {
+            return hostState;
+        }
+
+        loadRobotsRules(hostKey)
+                .thenApply(robotsRules -> new HostState(robotsRules, createTokenBucket(hostKey, robotsRules)))
+                .exceptionally(throwable -> {
+                    log.warn("Не удалось подготовить состояние хоста {}, robots.txt не учитывается", hostKey, throwable);
+                    return new HostState(RobotsRules.allowAll(), new HostTokenBucket(
+                            sitesListConfig.getDefaultRequestsPerSecond(), sitesListConfig.getBurst()));
+                })
+                .thenAccept(newHostState::complete);
+        return newHostState;
+    }
+
+    private CompletableFuture<RobotsRules> loadRobotsRules(String hostKey) {
+        if (!sitesListConfig.isRespectRobotsTxt()) {
+            return CompletableFuture.completedFuture(RobotsRules.allowAll());
+        }
+
+        return pageFetcher.fetchResource(hostKey + "/robots.txt")
+                .thenApply(this::parseRobotsRules)
+                .exceptionally(throwable -> {
+                    log.warn("Не удалось загрузить robots.txt хоста {}, разрешены все пути", hostKey, throwable);
+                    return RobotsRules.allowAll();
+                });
+    }
+
+    private RobotsRules parseRobotsRules(FetchedResource resource) {
+        try (resource) {
+            if (resource.getCodeStatus() >= 400) {
+                return RobotsRules.allowAll();
+            }
+
+            byte[] content = resource.getBody().readNBytes(MAX_ROBOTS_TXT_SIZE);
+            return RobotsRules.parse(new String(content, StandardCharsets.UTF_8),
+                    connectionPropertiesConfig.getUserAgent());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HostTokenBucket createTokenBucket(String hostKey, RobotsRules robotsRules) {
+        double requestsPerSecond = sitesListConfig.getSiteConfigs().stream()
+                .filter(siteConfig -> getHostKey(siteConfig.getUrl()).filter(hostKey::equals).isPresent())
+                .map(SiteConfig::getRequestsPerSecond)
+                .filter(rate -> rate != null && rate > 0)
+                .findFirst()
+                .orElse(sitesListConfig.getDefaultRequestsPerSecond());
+        int burst = sitesListConfig.getBurst();
+
+        Optional<Double> crawlDelay = robotsRules.getCrawlDelay();
+        if (crawlDelay.isPresent()) {
+            requestsPerSecond = Math.min(requestsPerSecond, 1 / crawlDelay.get());
+            burst = 1;
+        }
+
+        return new HostTokenBucket(requestsPerSecond, burst);
+    }
+
+    private Optional<String> getHostKey(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getScheme() == null || uri.getRawAuthority() == null) {
+                return Optional.empty();
+            }
+
+            return Optional.of((uri.getScheme() + "://" + uri.getRawAuthority()).toLowerCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private record HostState(RobotsRules robotsRules, HostTokenBucket tokenBucket) {
+    }
+}
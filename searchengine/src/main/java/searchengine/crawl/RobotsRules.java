@@ -0,0 +1,145 @@
+package searchengine.crawl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+public class RobotsRules {
+
+    private static final RobotsRules ALLOW_ALL = new RobotsRules(List.of(), null, List.of());
+    private final List<Rule> rules;
+    private final Double crawlDelay;
+    private final List<String> sitemaps;
+
+    private RobotsRules(List<Rule> rules, Double crawlDelay, List<String> sitemaps) {
+        this.rules = rules;
+        this.crawlDelay = crawlDelay;
+        this.sitemaps = sitemaps;
+    }
+
+    public static RobotsRules allowAll() {
+        return ALLOW_ALL;
+    }
+
+    public static RobotsRules parse(String content, String userAgent) {
+        String agent = userAgent == null ? "" : userAgent.toLowerCase(Locale.ROOT);
+        List<String> sitemaps = new ArrayList<>();
+        Group wildcardGroup = new Group();
+        Group agentGroup = new Group();
+        List<Group> currentGroups = new ArrayList<>();
+        boolean readingAgents = false;
+
+        for (String rawLine : content.split("\\r?\\n|\\r")) {
+            int commentStart = rawLine.indexOf('#');
+            String line = (commentStart >= 0 ? rawLine.substring(0, commentStart) : rawLine).trim();
+            int separator = line.indexOf(':');
+            if (separator <= 0) {
+                continue;
+            }
+
+            String field = line.substring(0, separator).trim().toLowerCase(Locale.ROOT);
+            String value = line.substring(separator + 1).trim();
+            switch (field) {
+                case "user-agent" -> {
+                    if (!readingAgents) {
+                        currentGroups.clear();
+                        readingAgents = true;
+                    }
+                    String groupAgent = value.toLowerCase(Locale.ROOT);
+                    if (groupAgent.equals("*")) {
+                        currentGroups.add(wildcardGroup);
+                    } else if (!groupAgent.isEmpty() && agent.contains(groupAgent)) {
+                        agentGroup.matched = true;
+                        currentGroups.add(agentGroup);
+                    }
+                }
+                case "allow", "disallow" -> {
+                    readingAgents = false;
+                    if (!value.isEmpty()) {
+                        Rule rule = new Rule(value, field.equals("allow"));
+                        currentGroups.forEach(group -> group.rules.add(rule));
+                    }
+                }
+                case "crawl-delay" -> {
+                    readingAgents = false;
+                    Double delay = parseDelay(value);
+                    currentGroups.forEach(group -> group.crawlDelay = delay);
+                }
+                case "sitemap" -> sitemaps.add(value);
+                default -> readingAgents = false;
+            }
+        }
+
+        Group group = agentGroup.matched ? agentGroup : wildcardGroup;
+        return new RobotsRules(group.rules, group.crawlDelay, Collections.unmodifiableList(sitemaps));
+    }
+
+    public boolean isAllowed(String path) {
+        Rule bestRule = null;
+        for (Rule rule : rules) {
+            if (rule.matches(path) && (bestRule == null || rule.length > bestRule.length
+                    || (rule.length == bestRule.length && rule.allow))) {
+                bestRule = rule;
+            }
+        }
+
+        return bestRule == null || bestRule.allow;
+    }
+
+    public Optional<Double> getCrawlDelay() {
+        return Optional.ofNullable(crawlDelay);
+    }
+
+    public List<String> getSitemaps() {
+        return sitemaps;
+    }
+
+    private static Double parseDelay(String value) {
+        try {
+            double delay = Double.parseDouble(value);
+            return delay > 0 ? delay : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static class Group {
+
+        private final List<Rule> rules = new ArrayList<>();
+        private Double crawlDelay;
+        private boolean matched;
+    }
+
+    private static class Rule {
+
+        private final Pattern pattern;
+        private final int length;
+        private final boolean allow;
+
+        Rule(String value, boolean allow) {
+            this.allow = allow;
+            length = value.length();
+
+            StringBuilder regex = new StringBuilder();
+            boolean anchored = value.endsWith("$");
+            String body = anchored ? value.substring(0, value.length() - 1) : value;
+            for (String part : body.split("\\*", -1)) {
+                if (regex.length() > 0) {
+                    regex.append(".*");
+                }
+                regex.append(Pattern.quote(part));
+            }
+            if (anchored) {
+                regex.append("$");
+            }
+            pattern = Pattern.compile(regex.toString());
+        }
+
+        boolean matches(String path) {
+            return pattern.matcher(path).lookingAt();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package searchengine.crawl;
+
+public class SiteFetchShare {
+
+    private final double weight;
+    private final int maxConcurrentFetches;
+    private int limit;
+    private int activeFetches;
+
+    SiteFetchShare(double weight, int maxConcurrentFetches) {
+        this.weight = weight;
+        this.maxConcurrentFetches = maxConcurrentFetches;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (activeFetches >= limit) {
+            return false;
+        }
+
+        activeFetches++;
+        return true;
+    }
+
+    public synchronized void release() {
+        activeFetches--;
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    synchronized void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    double getWeight() {
+        return weight;
+    }
+
+    int getMaxConcurrentFetches() {
+        return maxConcurrentFetches;
+    }
+}
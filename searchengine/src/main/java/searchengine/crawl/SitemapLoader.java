@@ -0,0 +1,79 @@
+package searchengine.crawl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import searchengine.config.SitesListConfig;
+import searchengine.fetch.FetchedResource;
+import searchengine.fetch.PageFetcher;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+@Component
+@RequiredArgsConstructor
+public class SitemapLoader {
+
+    private static final String DEFAULT_SITEMAP_PATH = "/sitemap.xml";
+    private final PageFetcher pageFetcher;
+    private final PolitenessScheduler politenessScheduler;
+    private final SitesListConfig sitesListConfig;
+
+    public void loadSitemaps(String siteUrl, Predicate<FrontierEntry> urlConsumer) {
+        if (!sitesListConfig.isSitemapSeeding()) {
+            return;
+        }
+
+        Deque<String> sitemapQueue = new ArrayDeque<>(getSitemapUrls(siteUrl));
+        Set<String> visitedSitemaps = new HashSet<>();
+        AtomicInteger acceptedUrls = new AtomicInteger();
+        Predicate<FrontierEntry> limitedConsumer = frontierEntry ->
+                acceptedUrls.incrementAndGet() <= sitesListConfig.getMaxSitemapUrls()
+                        && urlConsumer.test(frontierEntry);
+
+        while (!sitemapQueue.isEmpty() && visitedSitemaps.size() < sitesListConfig.getMaxSitemaps()) {
+            String sitemapUrl = sitemapQueue.poll();
+            if (!visitedSitemaps.add(sitemapUrl)) {
+                continue;
+            }
+
+            if (!loadSitemap(sitemapUrl, limitedConsumer, sitemapQueue)) {
+                return;
+            }
+        }
+    }
+
+    private List<String> getSitemapUrls(String siteUrl) {
+        List<String> sitemaps;
+        try {
+            sitemaps = politenessScheduler.getRobotsRules(siteUrl).join().getSitemaps();
+        } catch (CompletionException e) {
+            sitemaps = List.of();
+        }
+
+        return sitemaps.isEmpty() ? List.of(URI.create(siteUrl).resolve(DEFAULT_SITEMAP_PATH).toString()) : sitemaps;
+    }
+
+    private boolean loadSitemap(String sitemapUrl, Predicate<FrontierEntry> urlConsumer, Deque<String> sitemapQueue) {
+        try (FetchedResource resource = politenessScheduler.acquire(sitemapUrl)
+                .thenCompose(permit -> pageFetcher.fetchResource(sitemapUrl))
+                .join()) {
+
+            politenessScheduler.registerResponse(sitemapUrl, resource.getCodeStatus());
+            if (resource.getCodeStatus() >= 400) {
+                return true;
+            }
+
+            return SitemapParser.parse(resource.getBody(), urlConsumer, sitemapQueue::add);
+        } catch (IOException | CompletionException e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package searchengine.crawl;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+
+final class SitemapParser {
+
+    private static final int SITEMAP_URL_DEPTH = 1;
+    private static final Set<String> ENTRY_FIELDS = Set.of("loc", "priority", "lastmod");
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private SitemapParser() {
+    }
+
+    static boolean parse(InputStream input, Predicate<FrontierEntry> urlConsumer, Consumer<String> sitemapConsumer)
+            throws IOException {
+
+        try (InputStream content = decompressIfNeeded(input)) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(content);
+            try {
+                return readEntries(reader, urlConsumer, sitemapConsumer);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Некорректный формат карты сайта: " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean readEntries(XMLStreamReader reader, Predicate<FrontierEntry> urlConsumer,
+                                       Consumer<String> sitemapConsumer) throws XMLStreamException {
+
+        String location = null;
+        double priority = FrontierEntry.DEFAULT_PRIORITY;
+        long lastModified = 0;
+        int depth = 0;
+        int entryDepth = -1;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                String name = reader.getLocalName();
+                if (name.equals("url") || name.equals("sitemap")) {
+                    entryDepth = depth;
+                    location = null;
+                    priority = FrontierEntry.DEFAULT_PRIORITY;
+                    lastModified = 0;
+                } else if (depth == entryDepth + 1 && ENTRY_FIELDS.contains(name)) {
+                    String text = reader.getElementText();
+                    depth--;
+                    switch (name) {
+                        case "loc" -> location = text.trim();
+                        case "priority" -> priority = parsePriority(text);
+                        default -> lastModified = parseLastModified(text);
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (depth == entryDepth) {
+                    entryDepth = -1;
+                    if (location != null && !location.isEmpty()) {
+                        if (reader.getLocalName().equals("url")) {
+                            if (!urlConsumer.test(new FrontierEntry(location, priority, lastModified,
+                                    SITEMAP_URL_DEPTH))) {
+                                return false;
+                            }
+                        } else if (reader.getLocalName().equals("sitemap")) {
+                            sitemapConsumer.accept(location);
+                        }
+                    }
+                    location = null;
+                }
+                depth--;
+            }
+        }
+
+        return true;
+    }
+
+    private static InputStream decompressIfNeeded(InputStream input) throws IOException {
+        BufferedInputStream bufferedInput = new BufferedInputStream(input);
+        bufferedInput.mark(2);
+        int firstByte = bufferedInput.read();
+        int secondByte = bufferedInput.read();
+        bufferedInput.reset();
+
+        if (firstByte == 0x1f && secondByte == 0x8b) {
+            return new GZIPInputStream(bufferedInput);
+        }
+
+        return bufferedInput;
+    }
+
+    private static double parsePriority(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return FrontierEntry.DEFAULT_PRIORITY;
+        }
+    }
+
+    private static long parseLastModified(String value) {
+        String date = value.trim();
+        try {
+            return OffsetDateTime.parse(date).toInstant().toEpochMilli();
+        } catch (DateTimeParseException ignored) {
+        }
+
+        try {
+            return LocalDate.parse(date.length() > 10 ? date.substring(0, 10) : date)
+                    .atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory xmlInputFactory = XMLInputFactory.newFactory();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return xmlInputFactory;
+    }
+}
@@ -0,0 +1,26 @@
+package searchengine.crawl;
+
+public final class UrlFingerprint {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private UrlFingerprint() {
+    }
+
+    public static long of(String url) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < url.length(); i++) {
+            char symbol = url.charAt(i);
+            hash = (hash ^ (symbol & 0xFF)) * FNV_PRIME;
+            hash = (hash ^ (symbol >>> 8)) * FNV_PRIME;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
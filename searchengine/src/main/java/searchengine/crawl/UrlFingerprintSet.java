@@ -0,0 +1,98 @@
+package searchengine.crawl;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+public class UrlFingerprintSet {
+
+    private static final int SEGMENT_BITS = 6;
+    private static final int INITIAL_SEGMENT_CAPACITY = 1024;
+    private static final long EMPTY_SLOT = 0L;
+    private final Segment[] segments = new Segment[1 << SEGMENT_BITS];
+
+    public UrlFingerprintSet() {
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    public boolean add(String normalizedUrl) {
+        return add(UrlFingerprint.of(normalizedUrl));
+    }
+
+    public boolean add(long fingerprint) {
+        long key = fingerprint == EMPTY_SLOT ? 1L : fingerprint;
+        return segments[(int) (key >>> (Long.SIZE - SEGMENT_BITS))].add(key);
+    }
+
+    public boolean contains(String normalizedUrl) {
+        long fingerprint = UrlFingerprint.of(normalizedUrl);
+        long key = fingerprint == EMPTY_SLOT ? 1L : fingerprint;
+        return segments[(int) (key >>> (Long.SIZE - SEGMENT_BITS))].contains(key);
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+
+        return size;
+    }
+
+    private static class Segment {
+
+        private LongBuffer table = allocate(INITIAL_SEGMENT_CAPACITY);
+        private int size;
+
+        synchronized boolean add(long key) {
+            if ((size + 1) * 4L > table.capacity() * 3L) {
+                resize();
+            }
+
+            int slot = findSlot(table, key);
+            if (table.get(slot) == key) {
+                return false;
+            }
+
+            table.put(slot, key);
+            size++;
+            return true;
+        }
+
+        synchronized boolean contains(long key) {
+            return table.get(findSlot(table, key)) == key;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private void resize() {
+            LongBuffer newTable = allocate(table.capacity() * 2);
+            for (int i = 0; i < table.capacity(); i++) {
+                long key = table.get(i);
+                if (key != EMPTY_SLOT) {
+                    newTable.put(findSlot(newTable, key), key);
+                }
+            }
+            table = newTable;
+        }
+
+        private static int findSlot(LongBuffer table, long key) {
+            int mask = table.capacity() - 1;
+            int slot = (int) key & mask;
+            while (true) {
+                long current = table.get(slot);
+                if (current == EMPTY_SLOT || current == key) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private static LongBuffer allocate(int capacity) {
+            return ByteBuffer.allocateDirect(capacity * Long.BYTES).asLongBuffer();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package searchengine.crawl;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+public final class UrlNormalizer {
+
+    private static final String TRACKING_PARAMETER_PREFIX = "utm_";
+    private static final Set<String> TRACKING_PARAMETERS = Set.of("gclid", "dclid", "fbclid", "msclkid", "yclid",
+            "ysclid", "_openstat", "_ga", "_gl", "mc_cid", "mc_eid", "igshid");
+
+    private UrlNormalizer() {
+    }
+
+    public static Optional<String> normalize(String url) {
+        URL parsedUrl;
+        try {
+            parsedUrl = new URL(url.trim());
+        } catch (MalformedURLException e) {
+            return Optional.empty();
+        }
+
+        String protocol = parsedUrl.getProtocol().toLowerCase(Locale.ROOT);
+        String host = parsedUrl.getHost().toLowerCase(Locale.ROOT);
+        if (!(protocol.equals("http") || protocol.equals("https")) || host.isEmpty()) {
+            return Optional.empty();
+        }
+
+        StringBuilder normalizedUrl = new StringBuilder(protocol).append("://").append(host);
+        int port = parsedUrl.getPort();
+        if (port != -1 && port != parsedUrl.getDefaultPort()) {
+            normalizedUrl.append(':').append(port);
+        }
+
+        String path = parsedUrl.getPath();
+        normalizedUrl.append(path.isEmpty() ? "/" : path);
+
+        String query = normalizeQuery(parsedUrl.getQuery());
+        if (!query.isEmpty()) {
+            normalizedUrl.append('?').append(query);
+        }
+
+        return Optional.of(normalizedUrl.toString());
+    }
+
+    public static String getRootPrefix(String siteUrl) {
+        String normalizedUrl = normalize(siteUrl).orElse(siteUrl);
+        return normalizedUrl.endsWith("/") ? normalizedUrl.substring(0, normalizedUrl.length() - 1) : normalizedUrl;
+    }
+
+    public static String getShortUrl(String normalizedUrl, String rootPrefix) {
+        String path = normalizedUrl.substring(rootPrefix.length());
+        return path.isEmpty() ? "/" : path;
+    }
+
+    private static String normalizeQuery(String query) {
+        if (query == null || query.isEmpty()) {
+            return "";
+        }
+
+        List<String> parameters = new ArrayList<>();
+        for (String parameter : query.split("&")) {
+            if (!parameter.isEmpty() && !isTrackingParameter(parameter)) {
+                parameters.add(parameter);
+            }
+        }
+        parameters.sort(Comparator.comparing(UrlNormalizer::getParameterName));
+
+        return String.join("&", parameters);
+    }
+
+    private static boolean isTrackingParameter(String parameter) {
+        String name = getParameterName(parameter).toLowerCase(Locale.ROOT);
+        return name.startsWith(TRACKING_PARAMETER_PREFIX) || TRACKING_PARAMETERS.contains(name);
+    }
+
+    private static String getParameterName(String parameter) {
+        int separator = parameter.indexOf('=');
+        return separator == -1 ? parameter : parameter.substring(0, separator);
+    }
+}
@@ -0,0 +1,14 @@
+package searchengine.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class IndexRow {
+
+    private final int siteId;
+    private final int pageId;
+    private final int lemmaId;
+    private final float rank;
+}
@@ -1,20 +1,18 @@
 package searchengine.dto;
 
 import lombok.Data;
-import searchengine.model.Page;
 
 @Data
 public class PageRelevance implements Comparable<PageRelevance> {
 
+    private int pageId;
     private double absolutePageRelevance;
-    private double relativePageRelevance;
-    private Page page;
 
     @Override
     public int compareTo(PageRelevance o) {
-        int compare = -Double.compare(this.getRelativePageRelevance(), o.getRelativePageRelevance());
+        int compare = -Double.compare(this.getAbsolutePageRelevance(), o.getAbsolutePageRelevance());
         if (compare == 0) {
-            compare = Integer.compare(this.page.getId(), o.page.getId());
+            compare = Integer.compare(this.pageId, o.pageId);
         }
 
         return compare;
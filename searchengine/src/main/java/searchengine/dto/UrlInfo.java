@@ -7,5 +7,13 @@ import org.jsoup.nodes.Document;
 public class UrlInfo {
 
     private int codeStatus;
+    private String url;
+    private String contentType;
+    private String contentEncoding;
+    private byte[] body;
     private Document document;
+    private String content;
+    private String text;
+    private String etag;
+    private String lastModified;
 }
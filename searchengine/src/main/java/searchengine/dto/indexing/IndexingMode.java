@@ -0,0 +1,6 @@
+package searchengine.dto.indexing;
+
+public enum IndexingMode {
+
+    FULL, RESUME, INCREMENTAL
+}
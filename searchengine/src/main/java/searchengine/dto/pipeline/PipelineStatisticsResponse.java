@@ -0,0 +1,13 @@
+package searchengine.dto.pipeline;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class PipelineStatisticsResponse {
+
+    private boolean result;
+    private List<StageStatistics> stages;
+    private PurgeStatistics purge;
+}
@@ -0,0 +1,13 @@
+package searchengine.dto.pipeline;
+
+import lombok.Data;
+
+@Data
+public class PurgeStatistics {
+
+    private boolean running;
+    private String phase;
+    private Integer siteId;
+    private long deletedRows;
+    private long durationMillis;
+}
@@ -0,0 +1,14 @@
+package searchengine.dto.pipeline;
+
+import lombok.Data;
+
+@Data
+public class StageStatistics {
+
+    private String name;
+    private int threads;
+    private int activeTasks;
+    private int queueDepth;
+    private int queueCapacity;
+    private long completedTasks;
+}
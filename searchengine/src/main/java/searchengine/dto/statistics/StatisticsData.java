@@ -9,4 +9,5 @@ public class StatisticsData {
 
     private TotalStatistics total;
     private List<DetailedStatisticsItem> detailed;
+    private MorphologyCacheStatistics morphologyCache;
 }
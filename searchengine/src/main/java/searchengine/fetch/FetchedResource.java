@@ -0,0 +1,21 @@
+package searchengine.fetch;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+@Getter
+@RequiredArgsConstructor
+public class FetchedResource implements Closeable {
+
+    private final int codeStatus;
+    private final InputStream body;
+
+    @Override
+    public void close() throws IOException {
+        body.close();
+    }
+}
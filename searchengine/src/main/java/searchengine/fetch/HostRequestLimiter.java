@@ -0,0 +1,76 @@
+package searchengine.fetch;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+class HostRequestLimiter {
+
+    private final int maxRequestsPerHost;
+    private final Executor executor;
+    private final Map<String, HostSlots> hostSlots = new ConcurrentHashMap<>();
+
+    HostRequestLimiter(int maxRequestsPerHost, Executor executor) {
+        this.maxRequestsPerHost = Math.max(1, maxRequestsPerHost);
+        this.executor = executor;
+    }
+
+    <T> CompletableFuture<T> submit(String host, Supplier<CompletableFuture<T>> request) {
+        HostSlots slots = hostSlots.computeIfAbsent(String.valueOf(host), key -> new HostSlots());
+        CompletableFuture<T> result = new CompletableFuture<>();
+        slots.acquire(() -> {
+            CompletableFuture<T> response;
+            try {
+                response = request.get();
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+
+            response.whenComplete((value, throwable) -> {
+                slots.release();
+                if (throwable != null) {
+                    result.completeExceptionally(throwable);
+                } else {
+                    result.complete(value);
+                }
+            });
+        });
+
+        return result;
+    }
+
+    private class HostSlots {
+
+        private int activeRequests;
+        private final Deque<Runnable> waitingRequests = new ArrayDeque<>();
+
+        void acquire(Runnable request) {
+            synchronized (this) {
+                if (activeRequests >= maxRequestsPerHost) {
+                    waitingRequests.add(request);
+                    return;
+                }
+                activeRequests++;
+            }
+
+            request.run();
+        }
+
+        void release() {
+            Runnable nextRequest;
+            synchronized (this) {
+                nextRequest = waitingRequests.poll();
+                if (nextRequest == null) {
+                    activeRequests--;
+                    return;
+                }
+            }
+
+            executor.execute(nextRequest);
+        }
+    }
+}
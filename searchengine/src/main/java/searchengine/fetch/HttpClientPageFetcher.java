@@ -0,0 +1,127 @@
+package searchengine.fetch;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import searchengine.config.ConnectionPropertiesConfig;
+import searchengine.dto.UrlInfo;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+@Component
+@ConditionalOnProperty(prefix = "jsoup-connection-properties", name = "fetcher", havingValue = "http-client",
+        matchIfMissing = true)
+public class HttpClientPageFetcher implements PageFetcher {
+
+    private static final int NOT_MODIFIED = 304;
+    private final ConnectionPropertiesConfig connectionPropertiesConfig;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+    private final HostRequestLimiter hostRequestLimiter;
+
+    public HttpClientPageFetcher(ConnectionPropertiesConfig connectionPropertiesConfig) {
+        this.connectionPropertiesConfig = connectionPropertiesConfig;
+        executor = Executors.newFixedThreadPool(Math.max(1, connectionPropertiesConfig.getIoThreads()));
+        httpClient = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofMillis(connectionPropertiesConfig.getConnectTimeout()))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        hostRequestLimiter = new HostRequestLimiter(connectionPropertiesConfig.getMaxConnectionsPerHost(), executor);
+    }
+
+    @Override
+    public CompletableFuture<UrlInfo> fetch(String url, String etag, String lastModified) {
+        HttpRequest request;
+        try {
+            HttpRequest.Builder requestBuilder = createRequestBuilder(url);
+            if (etag != null) {
+                requestBuilder.header("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                requestBuilder.header("If-Modified-Since", lastModified);
+            }
+            request = requestBuilder.build();
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(new MalformedURLException(e.getMessage()));
+        }
+
+        int maxBodySize = connectionPropertiesConfig.getMaxBodySize();
+        return hostRequestLimiter.submit(request.uri().getHost(),
+                        () -> httpClient.sendAsync(request, responseInfo -> new LimitedBodySubscriber(maxBodySize)))
+                .thenApply(this::createUrlInfo);
+    }
+
+    @Override
+    public CompletableFuture<FetchedResource> fetchResource(String url) {
+        HttpRequest request;
+        try {
+            request = createRequestBuilder(url).build();
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(new MalformedURLException(e.getMessage()));
+        }
+
+        return hostRequestLimiter.submit(request.uri().getHost(),
+                        () -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream()))
+                .thenApply(this::createFetchedResource);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private HttpRequest.Builder createRequestBuilder(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofMillis(connectionPropertiesConfig.getReadTimeout()))
+                .header("User-Agent", connectionPropertiesConfig.getUserAgent())
+                .header("Referer", connectionPropertiesConfig.getReferer())
+                .header("Accept-Encoding", "gzip, deflate")
+                .GET();
+    }
+
+    private FetchedResource createFetchedResource(HttpResponse<InputStream> response) {
+        String contentEncoding = response.headers().firstValue("Content-Encoding").orElse("");
+        InputStream body = response.body();
+        try {
+            if (contentEncoding.equalsIgnoreCase("gzip")) {
+                body = new GZIPInputStream(body);
+            } else if (contentEncoding.equalsIgnoreCase("deflate")) {
+                body = new InflaterInputStream(body);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return new FetchedResource(response.statusCode(), body);
+    }
+
+    private UrlInfo createUrlInfo(HttpResponse<byte[]> response) {
+        UrlInfo urlInfo = new UrlInfo();
+        urlInfo.setCodeStatus(response.statusCode());
+        urlInfo.setUrl(response.uri().toString());
+        urlInfo.setEtag(response.headers().firstValue("ETag").orElse(null));
+        urlInfo.setLastModified(response.headers().firstValue("Last-Modified").orElse(null));
+        if (response.statusCode() == NOT_MODIFIED) {
+            return urlInfo;
+        }
+
+        urlInfo.setContentType(response.headers().firstValue("Content-Type").orElse(null));
+        urlInfo.setContentEncoding(response.headers().firstValue("Content-Encoding").orElse(null));
+        urlInfo.setBody(response.body());
+        return urlInfo;
+    }
+}
@@ -0,0 +1,93 @@
+package searchengine.fetch;
+
+import org.jsoup.Connection;
+import org.jsoup.Jsoup;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import searchengine.config.ConnectionPropertiesConfig;
+import searchengine.dto.UrlInfo;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@ConditionalOnProperty(prefix = "jsoup-connection-properties", name = "fetcher", havingValue = "jsoup")
+public class JsoupPageFetcher implements PageFetcher {
+
+    private static final int NOT_MODIFIED = 304;
+    private final ConnectionPropertiesConfig connectionPropertiesConfig;
+    private final ExecutorService executor;
+
+    public JsoupPageFetcher(ConnectionPropertiesConfig connectionPropertiesConfig) {
+        this.connectionPropertiesConfig = connectionPropertiesConfig;
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "jsoup-fetch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public CompletableFuture<UrlInfo> fetch(String url, String etag, String lastModified) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                Connection connection = Jsoup.connect(url)
+                        .userAgent(connectionPropertiesConfig.getUserAgent())
+                        .referrer(connectionPropertiesConfig.getReferer())
+                        .timeout(connectionPropertiesConfig.getReadTimeout())
+                        .maxBodySize(connectionPropertiesConfig.getMaxBodySize())
+                        .ignoreHttpErrors(true);
+                if (etag != null) {
+                    connection.header("If-None-Match", etag);
+                }
+                if (lastModified != null) {
+                    connection.header("If-Modified-Since", lastModified);
+                }
+                Connection.Response response = connection.execute();
+
+                UrlInfo urlInfo = new UrlInfo();
+                urlInfo.setCodeStatus(response.statusCode());
+                urlInfo.setUrl(response.url().toString());
+                urlInfo.setEtag(response.header("ETag"));
+                urlInfo.setLastModified(response.header("Last-Modified"));
+                if (response.statusCode() != NOT_MODIFIED) {
+                    urlInfo.setContentType(response.contentType());
+                    urlInfo.setBody(response.bodyAsBytes());
+                }
+                return urlInfo;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<FetchedResource> fetchResource(String url) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                Connection.Response response = Jsoup.connect(url)
+                        .userAgent(connectionPropertiesConfig.getUserAgent())
+                        .timeout(connectionPropertiesConfig.getReadTimeout())
+                        .maxBodySize(0)
+                        .ignoreContentType(true)
+                        .ignoreHttpErrors(true)
+                        .execute();
+
+                return new FetchedResource(response.statusCode(), response.bodyStream());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
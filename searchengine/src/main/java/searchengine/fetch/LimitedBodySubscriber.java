@@ -0,0 +1,57 @@
+package searchengine.fetch;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+class LimitedBodySubscriber implements HttpResponse.BodySubscriber<byte[]> {
+
+    private final int maxBodySize;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private final CompletableFuture<byte[]> body = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+
+    LimitedBodySubscriber(int maxBodySize) {
+        this.maxBodySize = maxBodySize > 0 ? maxBodySize : Integer.MAX_VALUE;
+    }
+
+    @Override
+    public CompletionStage<byte[]> getBody() {
+        return body;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+        for (ByteBuffer item : items) {
+            int length = Math.min(item.remaining(), maxBodySize - buffer.size());
+            byte[] chunk = new byte[length];
+            item.get(chunk);
+            buffer.write(chunk, 0, length);
+        }
+
+        if (buffer.size() >= maxBodySize) {
+            subscription.cancel();
+            body.complete(buffer.toByteArray());
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        body.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        body.complete(buffer.toByteArray());
+    }
+}
@@ -0,0 +1,92 @@
+package searchengine.fetch;
+
+import lombok.RequiredArgsConstructor;
+import org.jsoup.Jsoup;
+import org.jsoup.UnsupportedMimeTypeException;
+import org.jsoup.nodes.Document;
+import org.springframework.stereotype.Component;
+import searchengine.config.ConnectionPropertiesConfig;
+import searchengine.dto.UrlInfo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+@Component
+@RequiredArgsConstructor
+public class PageContentParser {
+
+    private static final Pattern CHARSET_PATTERN = Pattern.compile("(?i)\\bcharset=\\s*\"?([^\\s;\"]*)");
+    private static final Pattern XML_CONTENT_TYPE_PATTERN = Pattern.compile("(application|text)/\\w*\\+?xml.*");
+    private final ConnectionPropertiesConfig connectionPropertiesConfig;
+
+    public Document parse(UrlInfo urlInfo) throws IOException {
+        String contentType = urlInfo.getContentType();
+        if (contentType != null && !contentType.startsWith("text/")
+                && !XML_CONTENT_TYPE_PATTERN.matcher(contentType).matches()) {
+            throw new UnsupportedMimeTypeException("Unhandled content type", contentType, urlInfo.getUrl());
+        }
+
+        byte[] body = decodeBody(urlInfo.getBody(), urlInfo.getContentEncoding());
+        return Jsoup.parse(new ByteArrayInputStream(body), getCharset(contentType), urlInfo.getUrl());
+    }
+
+    private byte[] decodeBody(byte[] body, String contentEncoding) throws IOException {
+        if ("gzip".equalsIgnoreCase(contentEncoding)) {
+            return readLimited(new GZIPInputStream(new ByteArrayInputStream(body)));
+        } else if ("deflate".equalsIgnoreCase(contentEncoding)) {
+            Inflater inflater = new Inflater(!isZlibWrapped(body));
+            return readLimited(new InflaterInputStream(new ByteArrayInputStream(body), inflater));
+        }
+
+        return body;
+    }
+
+    private boolean isZlibWrapped(byte[] body) {
+        return body.length > 1 && (body[0] & 0x0F) == 8 && ((body[0] & 0xFF) << 8 | (body[1] & 0xFF)) % 31 == 0;
+    }
+
+    private byte[] readLimited(InputStream inputStream) throws IOException {
+        int maxBodySize = connectionPropertiesConfig.getMaxBodySize();
+        int limit = maxBodySize > 0 ? maxBodySize : Integer.MAX_VALUE;
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        try (inputStream) {
+            int read;
+            while (outputStream.size() < limit && (read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, Math.min(read, limit - outputStream.size()));
+            }
+        } catch (IOException e) {
+            if (outputStream.size() == 0) {
+                throw e;
+            }
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    private String getCharset(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+
+        Matcher matcher = CHARSET_PATTERN.matcher(contentType);
+        if (matcher.find()) {
+            String charset = matcher.group(1).trim();
+            try {
+                return Charset.isSupported(charset) ? charset : null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        return null;
+    }
+}
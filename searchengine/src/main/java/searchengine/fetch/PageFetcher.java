@@ -0,0 +1,16 @@
+package searchengine.fetch;
+
+import searchengine.dto.UrlInfo;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface PageFetcher {
+
+    CompletableFuture<UrlInfo> fetch(String url, String etag, String lastModified);
+
+    default CompletableFuture<UrlInfo> fetch(String url) {
+        return fetch(url, null, null);
+    }
+
+    CompletableFuture<FetchedResource> fetchResource(String url);
+}
@@ -0,0 +1,85 @@
+package searchengine.lemma;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import searchengine.model.Lemma;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class HotLemmaCache {
+
+    private final Map<Integer, Map<String, HotLemma>> siteLemmas = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> siteVersions = new ConcurrentHashMap<>();
+
+    public long getVersion(int siteId) {
+        return siteVersions.getOrDefault(siteId, 0L);
+    }
+
+    public void put(int siteId, long version, List<Lemma> lemmas) {
+        Map<String, HotLemma> hotLemmas = new HashMap<>();
+        lemmas.forEach(lemma -> hotLemmas.put(lemma.getLemma(),
+                new HotLemma(lemma.getId(), lemma.getFrequency())));
+
+        siteVersions.compute(siteId, (id, currentVersion) -> {
+            if ((currentVersion == null ? 0L : currentVersion) == version) {
+                siteLemmas.put(siteId, hotLemmas);
+            }
+            return currentVersion;
+        });
+    }
+
+    public Optional<List<Integer>> findLemmaIdsByFrequency(int siteId, Collection<String> lemmas) {
+        Map<String, HotLemma> hotLemmas = siteLemmas.get(siteId);
+        if (hotLemmas == null) {
+            return Optional.empty();
+        }
+
+        List<HotLemma> lemmasByFrequency = new ArrayList<>(lemmas.size());
+        for (String lemma : lemmas) {
+            HotLemma hotLemma = hotLemmas.get(lemma);
+            if (hotLemma == null) {
+                return Optional.empty();
+            }
+            lemmasByFrequency.add(hotLemma);
+        }
+
+        lemmasByFrequency.sort(Comparator.comparingInt(HotLemma::getFrequency));
+        return Optional.of(lemmasByFrequency.stream().map(HotLemma::getId).toList());
+    }
+
+    public void evictSite(int siteId) {
+        evict(siteId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(siteId);
+                }
+            });
+        }
+    }
+
+    private void evict(int siteId) {
+        siteVersions.merge(siteId, 1L, Long::sum);
+        siteLemmas.remove(siteId);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class HotLemma {
+
+        private final int id;
+        private final int frequency;
+    }
+}
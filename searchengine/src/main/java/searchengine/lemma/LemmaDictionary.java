@@ -0,0 +1,189 @@
+package searchengine.lemma;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import searchengine.config.SitesListConfig;
+import searchengine.dto.IndexRow;
+import searchengine.store.IndexStore;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Slf4j
+@Component
+public class LemmaDictionary {
+
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+    private final IndexStore indexStore;
+    private final SitesListConfig sitesListConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Integer, SiteLemmaDictionary> dictionaries = new ConcurrentHashMap<>();
+    private final Set<Integer> scheduledFlushes = ConcurrentHashMap.newKeySet();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "lemma-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public LemmaDictionary(IndexStore indexStore, SitesListConfig sitesListConfig,
+                           PlatformTransactionManager transactionManager) {
+
+        this.indexStore = indexStore;
+        this.sitesListConfig = sitesListConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void open(int siteId) {
+        dictionaries.putIfAbsent(siteId, new SiteLemmaDictionary(siteId));
+    }
+
+    public boolean close(int siteId) {
+        SiteLemmaDictionary dictionary = dictionaries.remove(siteId);
+        if (dictionary == null) {
+            return true;
+        }
+
+        flushPending(dictionary);
+        return !dictionary.isBatchDropped();
+    }
+
+    public Optional<SiteLemmaDictionary> getDictionary(int siteId) {
+        return Optional.ofNullable(dictionaries.get(siteId));
+    }
+
+    public void addPage(SiteLemmaDictionary dictionary, int pageId, Map<String, Integer> lemmaStatistics) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyPage(dictionary, pageId, lemmaStatistics);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applyPage(dictionary, pageId, lemmaStatistics);
+            }
+        });
+    }
+
+    public void flushBeforeDirectUpdate(int siteId) {
+        SiteLemmaDictionary dictionary = dictionaries.get(siteId);
+        if (dictionary != null) {
+            synchronized (dictionary.getFlushLock()) {
+                flushPending(dictionary);
+                dictionary.forgetIds();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${indexing-settings.lemmaFlushInterval:10000}")
+    public void flushAll() {
+        dictionaries.values().forEach(this::flush);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdownNow();
+    }
+
+    private void applyPage(SiteLemmaDictionary dictionary, int pageId, Map<String, Integer> lemmaStatistics) {
+        int pendingIndexes = dictionary.addPage(pageId, lemmaStatistics);
+        if (pendingIndexes >= sitesListConfig.getLemmaFlushBatchSize()
+                && scheduledFlushes.add(dictionary.getSiteId())) {
+            flushExecutor.execute(() -> {
+                scheduledFlushes.remove(dictionary.getSiteId());
+                flush(dictionary);
+            });
+        }
+    }
+
+    private void flushPending(SiteLemmaDictionary dictionary) {
+        synchronized (dictionary.getFlushLock()) {
+            while (!dictionary.isDrained()) {
+                flush(dictionary);
+            }
+        }
+    }
+
+    private void flush(SiteLemmaDictionary dictionary) {
+        synchronized (dictionary.getFlushLock()) {
+            SiteLemmaDictionary.FlushBatch batch = dictionary.drain();
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            List<LemmaEntry> resolvedEntries = new ArrayList<>();
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        writeBatch(dictionary.getSiteId(), batch, resolvedEntries));
+            } catch (RuntimeException e) {
+                resolvedEntries.forEach(entry -> entry.setId(null));
+                if (batch.registerFailedAttempt() < MAX_FLUSH_ATTEMPTS) {
+                    dictionary.quarantine(batch);
+                    log.warn("Не удалось записать пакет лемм сайта с id {}, попытка {} из {}: {}",
+                            dictionary.getSiteId(), batch.getFailedAttempts(), MAX_FLUSH_ATTEMPTS, e.getMessage());
+                } else {
+                    dictionary.drop(batch);
+                    log.error("Пакет из {} индексов сайта с id {} отброшен после {} неудачных попыток записи",
+                            batch.getPendingIndexes().size(), dictionary.getSiteId(), MAX_FLUSH_ATTEMPTS, e);
+                }
+            }
+        }
+    }
+
+    private void writeBatch(int siteId, SiteLemmaDictionary.FlushBatch batch, List<LemmaEntry> resolvedEntries) {
+        Map<String, Integer> frequencyIncrements = new TreeMap<>();
+        batch.getFrequencyIncrements().forEach((entry, frequency) ->
+                frequencyIncrements.merge(entry.getLemma(), frequency, Integer::sum));
+        indexStore.addLemmaFrequencies(siteId, frequencyIncrements);
+
+        resolveIds(siteId, batch, resolvedEntries);
+        List<IndexRow> indexRows = new ArrayList<>(batch.getPendingIndexes().size());
+        for (SiteLemmaDictionary.PendingIndex pendingIndex : batch.getPendingIndexes()) {
+            Integer lemmaId = pendingIndex.getEntry().getId();
+            if (lemmaId == null) {
+                throw new IllegalStateException("Не найден идентификатор леммы \"" +
+                        pendingIndex.getEntry().getLemma() + "\" для сайта с id " + siteId + ".");
+            }
+            indexRows.add(new IndexRow(siteId, pendingIndex.getPageId(), lemmaId, pendingIndex.getRank()));
+        }
+        indexStore.insertIndexes(indexRows);
+    }
+
+    private void resolveIds(int siteId, SiteLemmaDictionary.FlushBatch batch, List<LemmaEntry> resolvedEntries) {
+        Map<String, LemmaEntry> unresolvedEntries = new LinkedHashMap<>();
+        Set<LemmaEntry> candidates = new LinkedHashSet<>(batch.getFrequencyIncrements().keySet());
+        batch.getPendingIndexes().forEach(pendingIndex -> candidates.add(pendingIndex.getEntry()));
+        for (LemmaEntry entry : candidates) {
+            if (entry.getId() == null) {
+                unresolvedEntries.put(entry.getLemma(), entry);
+            }
+        }
+
+        if (unresolvedEntries.isEmpty()) {
+            return;
+        }
+
+        indexStore.findLemmaIds(siteId, new ArrayList<>(unresolvedEntries.keySet())).forEach((lemma, id) -> {
+            LemmaEntry entry = unresolvedEntries.get(lemma);
+            entry.setId(id);
+            resolvedEntries.add(entry);
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package searchengine.lemma;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LemmaEntry {
+
+    @Getter
+    private final String lemma;
+    private final AtomicInteger frequency = new AtomicInteger();
+    private final AtomicInteger unflushedFrequency = new AtomicInteger();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private volatile Integer id;
+
+    LemmaEntry(String lemma) {
+        this.lemma = lemma;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public int getFrequency() {
+        return frequency.get();
+    }
+
+    void setId(Integer id) {
+        this.id = id;
+    }
+
+    boolean increment() {
+        frequency.incrementAndGet();
+        unflushedFrequency.incrementAndGet();
+        return dirty.compareAndSet(false, true);
+    }
+
+    int takeUnflushedFrequency() {
+        dirty.set(false);
+        return unflushedFrequency.getAndSet(0);
+    }
+
+    void discardFrequency(int frequency) {
+        this.frequency.addAndGet(-frequency);
+    }
+}
@@ -0,0 +1,105 @@
+package searchengine.lemma;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@RequiredArgsConstructor
+public class SiteLemmaDictionary {
+
+    @Getter
+    private final int siteId;
+    @Getter
+    private final Object flushLock = new Object();
+    private final Map<String, LemmaEntry> entries = new ConcurrentHashMap<>();
+    private final List<LemmaEntry> dirtyEntries = new ArrayList<>();
+    private final List<PendingIndex> pendingIndexes = new ArrayList<>();
+    private FlushBatch quarantinedBatch;
+    private boolean batchDropped;
+
+    public synchronized int addPage(int pageId, Map<String, Integer> lemmaStatistics) {
+        lemmaStatistics.forEach((lemma, rank) -> {
+            LemmaEntry entry = entries.computeIfAbsent(lemma, LemmaEntry::new);
+            if (entry.increment()) {
+                dirtyEntries.add(entry);
+            }
+            pendingIndexes.add(new PendingIndex(pageId, entry, rank));
+        });
+
+        return pendingIndexes.size();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    synchronized FlushBatch drain() {
+        if (quarantinedBatch != null) {
+            FlushBatch batch = quarantinedBatch;
+            quarantinedBatch = null;
+            return batch;
+        }
+
+        Map<LemmaEntry, Integer> frequencyIncrements = new LinkedHashMap<>();
+        for (LemmaEntry entry : dirtyEntries) {
+            frequencyIncrements.put(entry, entry.takeUnflushedFrequency());
+        }
+        FlushBatch batch = new FlushBatch(new ArrayList<>(pendingIndexes), frequencyIncrements);
+        dirtyEntries.clear();
+        pendingIndexes.clear();
+
+        return batch;
+    }
+
+    synchronized void quarantine(FlushBatch batch) {
+        quarantinedBatch = batch;
+    }
+
+    synchronized void drop(FlushBatch batch) {
+        batch.getFrequencyIncrements().forEach((entry, frequency) -> entry.discardFrequency(frequency));
+        batchDropped = true;
+    }
+
+    synchronized boolean isDrained() {
+        return quarantinedBatch == null && dirtyEntries.isEmpty() && pendingIndexes.isEmpty();
+    }
+
+    synchronized boolean isBatchDropped() {
+        return batchDropped;
+    }
+
+    void forgetIds() {
+        entries.values().forEach(entry -> entry.setId(null));
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    static class PendingIndex {
+
+        private final int pageId;
+        private final LemmaEntry entry;
+        private final int rank;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    static class FlushBatch {
+
+        private final List<PendingIndex> pendingIndexes;
+        private final Map<LemmaEntry, Integer> frequencyIncrements;
+        private int failedAttempts;
+
+        int registerFailedAttempt() {
+            return ++failedAttempts;
+        }
+
+        boolean isEmpty() {
+            return pendingIndexes.isEmpty() && frequencyIncrements.isEmpty();
+        }
+    }
+}
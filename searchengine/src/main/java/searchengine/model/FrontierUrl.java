@@ -0,0 +1,39 @@
+package searchengine.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import searchengine.model.enums.FrontierStatus;
+
+import javax.persistence.*;
+
+@Entity
+@Table(name = "frontier_url", uniqueConstraints = @UniqueConstraint(name = "uk_frontier_url_site_fingerprint",
+        columnNames = {"site_id", "fingerprint"}))
+@Getter
+@Setter
+public class FrontierUrl {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @ManyToOne
+    @JoinColumn(name = "site_id", nullable = false)
+    private Site site;
+
+    @Column(nullable = false)
+    private Long fingerprint;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String url;
+
+    @Column(nullable = false)
+    private Double priority;
+
+    @Column(nullable = false)
+    private Integer depth;
+
+    @Column(columnDefinition = "ENUM('PENDING', 'DONE')", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private FrontierStatus status;
+}
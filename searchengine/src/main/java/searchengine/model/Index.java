@@ -15,6 +15,10 @@ public class Index {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
+    @ManyToOne
+    @JoinColumn(name = "site_id", nullable = false)
+    private Site site;
+
     @ManyToOne
     @JoinColumn(name = "page_id")
     private Page page;
@@ -7,7 +7,8 @@ import javax.persistence.*;
 import java.util.List;
 
 @Entity
-@Table(name = "lemma")
+@Table(name = "lemma", uniqueConstraints = @UniqueConstraint(name = "uk_lemma_site_lemma",
+        columnNames = {"site_id", "lemma"}))
 @Getter
 @Setter
 public class Lemma {
@@ -20,7 +21,7 @@ public class Lemma {
     @JoinColumn(name = "site_id", nullable = false)
     private Site site;
 
-    @Column(nullable = false)
+    @Column(columnDefinition = "VARCHAR(255) COLLATE utf8mb4_bin", nullable = false)
     private String lemma;
 
     @Column(nullable = false)
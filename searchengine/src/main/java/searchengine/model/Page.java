@@ -20,14 +20,29 @@ public class Page {
     @JoinColumn(name = "site_id", nullable = false)
     private Site site;
 
-    @Column(columnDefinition = "TEXT NOT NULL, Index(path(256))")
+    @Column(columnDefinition = "TEXT", nullable = false)
     private String path;
 
     @Column(nullable = false)
     private Integer code;
 
+    @Column(columnDefinition = "MEDIUMBLOB", nullable = false)
+    private byte[] content;
+
     @Column(columnDefinition = "MEDIUMTEXT", nullable = false)
-    private String content;
+    private String text;
+
+    @Column(columnDefinition = "VARCHAR(255)")
+    private String etag;
+
+    @Column(columnDefinition = "VARCHAR(64)")
+    private String lastModified;
+
+    @Column(columnDefinition = "CHAR(64)")
+    private String contentHash;
+
+    @Column(nullable = false)
+    private Integer tokenCount;
 
     @OneToMany(mappedBy = "page", cascade = CascadeType.ALL)
     private List<Index> indexEntities;
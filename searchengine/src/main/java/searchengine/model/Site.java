@@ -2,6 +2,7 @@ package searchengine.model;
 
 import lombok.Getter;
 import lombok.Setter;
+import searchengine.model.enums.GenerationState;
 import searchengine.model.enums.Status;
 
 import javax.persistence.*;
@@ -34,6 +35,13 @@ public class Site {
     @Column(columnDefinition = "VARCHAR(255)", nullable = false)
     private String name;
 
+    @Column(nullable = false)
+    private Long generation;
+
+    @Column(columnDefinition = "ENUM('LIVE', 'SHADOW', 'RETIRED')", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private GenerationState generationState;
+
     @OneToMany(mappedBy = "site", cascade = CascadeType.ALL)
     private List<Page> pageEntities;
 
@@ -0,0 +1,6 @@
+package searchengine.model.enums;
+
+public enum FrontierStatus {
+
+    PENDING, DONE
+}
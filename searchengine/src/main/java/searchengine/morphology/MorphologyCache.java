@@ -0,0 +1,89 @@
+package searchengine.morphology;
+
+import org.springframework.stereotype.Component;
+import searchengine.config.MorphologyConfig;
+import searchengine.dto.statistics.MorphologyCacheStatistics;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+@Component
+public class MorphologyCache {
+
+    private static final int SEGMENT_COUNT = 16;
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+    private final int capacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public MorphologyCache(MorphologyConfig morphologyConfig) {
+        int segmentCapacity = Math.max(1, morphologyConfig.getCacheSize() / SEGMENT_COUNT);
+        capacity = segmentCapacity * SEGMENT_COUNT;
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    public List<String> getNormalForms(String word, Function<String, List<String>> resolver) {
+        Segment segment = getSegment(word);
+        List<String> normalForms;
+        synchronized (segment) {
+            normalForms = segment.get(word);
+        }
+
+        if (normalForms != null) {
+            hits.increment();
+            return normalForms;
+        }
+
+        misses.increment();
+        normalForms = List.copyOf(resolver.apply(word));
+        synchronized (segment) {
+            segment.put(word, normalForms);
+        }
+
+        return normalForms;
+    }
+
+    public MorphologyCacheStatistics getStatistics() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        MorphologyCacheStatistics statistics = new MorphologyCacheStatistics();
+        statistics.setSize(size);
+        statistics.setCapacity(capacity);
+        statistics.setHits(hitCount);
+        statistics.setMisses(missCount);
+        statistics.setHitRate(hitCount + missCount == 0 ? 0 : (double) hitCount / (hitCount + missCount));
+        return statistics;
+    }
+
+    private Segment getSegment(String word) {
+        int hash = word.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENT_COUNT - 1)];
+    }
+
+    private static class Segment extends LinkedHashMap<String, List<String>> {
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+            return size() > capacity;
+        }
+    }
+}
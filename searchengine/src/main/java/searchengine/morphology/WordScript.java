@@ -0,0 +1,7 @@
+package searchengine.morphology;
+
+public enum WordScript {
+    CYRILLIC,
+    LATIN,
+    MIXED
+}
@@ -0,0 +1,54 @@
+package searchengine.morphology;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+public final class WordTokenizer {
+
+    private static final int INITIAL_BUFFER_SIZE = 32;
+
+    private WordTokenizer() {
+    }
+
+    public static void tokenize(CharSequence text, BiConsumer<String, WordScript> wordConsumer) {
+        char[] buffer = new char[INITIAL_BUFFER_SIZE];
+        int length = 0;
+        boolean hasCyrillic = false;
+        boolean hasLatin = false;
+
+        int textLength = text.length();
+        for (int i = 0; i <= textLength; i++) {
+            char letter = i < textLength ? normalizeLetter(text.charAt(i)) : 0;
+            if (letter != 0) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, length * 2);
+                }
+                buffer[length++] = letter;
+                if (letter <= 'z') {
+                    hasLatin = true;
+                } else {
+                    hasCyrillic = true;
+                }
+            } else if (length > 0) {
+                WordScript script = hasCyrillic && hasLatin ? WordScript.MIXED
+                        : hasCyrillic ? WordScript.CYRILLIC : WordScript.LATIN;
+                wordConsumer.accept(new String(buffer, 0, length), script);
+                length = 0;
+                hasCyrillic = false;
+                hasLatin = false;
+            }
+        }
+    }
+
+    private static char normalizeLetter(char character) {
+        if (character >= 'а' && character <= 'я' || character >= 'a' && character <= 'z') {
+            return character;
+        } else if (character >= 'А' && character <= 'Я' || character >= 'A' && character <= 'Z') {
+            return (char) (character + 32);
+        } else if (character == 'ё' || character == 'Ё') {
+            return 'е';
+        }
+
+        return 0;
+    }
+}
@@ -0,0 +1,99 @@
+package searchengine.parse;
+
+import searchengine.dto.pipeline.StageStatistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+class BatchPipelineStage<T> {
+
+    private final String name;
+    private final int batchSize;
+    private final BlockingQueue<T> queue;
+    private final Consumer<List<T>> batchHandler;
+    private final BiConsumer<T, RuntimeException> failureHandler;
+    private final List<Thread> workers = new ArrayList<>();
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final AtomicLong completedTasks = new AtomicLong();
+
+    BatchPipelineStage(String name, int threads, int queueCapacity, int batchSize, Consumer<List<T>> batchHandler,
+                       BiConsumer<T, RuntimeException> failureHandler) {
+        this.name = name;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchHandler = batchHandler;
+        this.failureHandler = failureHandler;
+        queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+
+        for (int i = 1; i <= Math.max(1, threads); i++) {
+            Thread worker = new Thread(this::processBatches, name + "-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    void submit(T item) {
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    boolean hasCapacity() {
+        return queue.remainingCapacity() > 0;
+    }
+
+    StageStatistics getStatistics() {
+        StageStatistics stageStatistics = new StageStatistics();
+        stageStatistics.setName(name);
+        stageStatistics.setThreads(workers.size());
+        stageStatistics.setActiveTasks(activeWorkers.get());
+        stageStatistics.setQueueDepth(queue.size());
+        stageStatistics.setQueueCapacity(queue.size() + queue.remainingCapacity());
+        stageStatistics.setCompletedTasks(completedTasks.get());
+        return stageStatistics;
+    }
+
+    void shutdown() {
+        workers.forEach(Thread::interrupt);
+    }
+
+    private void processBatches() {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+
+            activeWorkers.incrementAndGet();
+            try {
+                batchHandler.accept(batch);
+            } catch (RuntimeException e) {
+                failBatch(batch, e);
+            } finally {
+                activeWorkers.decrementAndGet();
+                completedTasks.addAndGet(batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private void failBatch(List<T> batch, RuntimeException exception) {
+        for (T item : batch) {
+            try {
+                failureHandler.accept(item, exception);
+            } catch (RuntimeException ignored) {
+            }
+        }
+    }
+}
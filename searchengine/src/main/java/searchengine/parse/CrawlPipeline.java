@@ -0,0 +1,425 @@
+package searchengine.parse;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import searchengine.config.PipelineConfig;
+import searchengine.crawl.FrontierEntry;
+import searchengine.crawl.PolitenessScheduler;
+import searchengine.crawl.SitemapLoader;
+import searchengine.crawl.UrlNormalizer;
+import searchengine.dto.UrlInfo;
+import searchengine.dto.pipeline.StageStatistics;
+import searchengine.model.Page;
+import searchengine.model.Site;
+import searchengine.model.enums.Status;
+import searchengine.repository.SiteRepository;
+import searchengine.service.FrontierService;
+import searchengine.service.LemmaService;
+import searchengine.service.PageService;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class CrawlPipeline {
+
+    private static final long DISPATCHER_IDLE_WAIT_MILLIS = 50;
+    private final PageService pageService;
+    private final LemmaService lemmaService;
+    private final FrontierService frontierService;
+    private final PolitenessScheduler politenessScheduler;
+    private final SitemapLoader sitemapLoader;
+    private final SiteRepository siteRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<String> wrongTypes;
+    private final PipelineStage fetchStage;
+    private final PipelineStage parseStage;
+    private final PipelineStage lemmaStage;
+    private final BatchPipelineStage<PageParseTask> persistStage;
+    private final List<SiteCrawl> siteCrawls = new CopyOnWriteArrayList<>();
+    private final AtomicInteger inFlightFetches = new AtomicInteger();
+    private final Object dispatcherMonitor = new Object();
+    private volatile boolean stopFlag;
+    private Thread dispatcher;
+
+    public CrawlPipeline(PageService pageService, LemmaService lemmaService, FrontierService frontierService,
+                         PolitenessScheduler politenessScheduler, SitemapLoader sitemapLoader,
+                         SiteRepository siteRepository,
+                         PlatformTransactionManager transactionManager, PipelineConfig pipelineConfig,
+                         @Value("#{'${wrong-types}'.split(',')}") List<String> wrongTypes) {
+
+        this.pageService = pageService;
+        this.lemmaService = lemmaService;
+        this.frontierService = frontierService;
+        this.politenessScheduler = politenessScheduler;
+        this.sitemapLoader = sitemapLoader;
+        this.siteRepository = siteRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.wrongTypes = wrongTypes;
+
+        int queueCapacity = pipelineConfig.getQueueCapacity();
+        fetchStage = new PipelineStage("fetch", pipelineConfig.getFetchThreads(), queueCapacity);
+        parseStage = new PipelineStage("parse", pipelineConfig.getParseThreads(), queueCapacity);
+        lemmaStage = new PipelineStage("lemmatize", pipelineConfig.getLemmaThreads(), queueCapacity);
+        persistStage = new BatchPipelineStage<>("persist", pipelineConfig.getPersistThreads(), queueCapacity,
+                pipelineConfig.getPersistBatchSize(), this::persist, this::fail);
+    }
+
+    public void start(SiteCrawl siteCrawl, Collection<String> knownUrls, List<FrontierEntry> pendingEntries) {
+        knownUrls.forEach(siteCrawl::claim);
+        boolean seedingNeeded = pendingEntries.isEmpty();
+        if (seedingNeeded) {
+            FrontierEntry rootEntry = FrontierEntry.root(siteCrawl.getStartUrl());
+            if (siteCrawl.claim(rootEntry.getUrl())) {
+                frontierService.addPendingUrl(siteCrawl.getSite(), rootEntry);
+            }
+            siteCrawl.startSeeding();
+            siteCrawl.enqueue(rootEntry);
+        } else {
+            pendingEntries.forEach(siteCrawl::enqueue);
+        }
+
+        siteCrawls.add(siteCrawl);
+        siteCrawl.getCompletion().whenComplete((result, throwable) -> siteCrawls.remove(siteCrawl));
+        startDispatcherIfNeeded();
+        signalDispatcher();
+
+        if (seedingNeeded) {
+            try {
+                sitemapLoader.loadSitemaps(siteCrawl.getSite().getUrl(),
+                        frontierEntry -> seedFromSitemap(siteCrawl, frontierEntry));
+            } finally {
+                siteCrawl.finishSeeding();
+                signalDispatcher();
+            }
+        }
+    }
+
+    public void setStopFlag(boolean stopFlag) {
+        this.stopFlag = stopFlag;
+        signalDispatcher();
+    }
+
+    public boolean getStopFlag() {
+        return stopFlag;
+    }
+
+    public List<StageStatistics> getStageStatistics() {
+        StageStatistics frontierStatistics = new StageStatistics();
+        frontierStatistics.setName("frontier");
+        frontierStatistics.setQueueDepth(siteCrawls.stream().mapToInt(siteCrawl -> siteCrawl.getFrontier().size()).sum());
+
+        StageStatistics fetchStatistics = fetchStage.getStatistics();
+        fetchStatistics.setActiveTasks(fetchStatistics.getActiveTasks() + inFlightFetches.get());
+
+        return List.of(frontierStatistics, fetchStatistics, parseStage.getStatistics(),
+                lemmaStage.getStatistics(), persistStage.getStatistics());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (this) {
+            if (dispatcher != null) {
+                dispatcher.interrupt();
+            }
+        }
+        fetchStage.shutdown();
+        parseStage.shutdown();
+        lemmaStage.shutdown();
+        persistStage.shutdown();
+    }
+
+    private synchronized void startDispatcherIfNeeded() {
+        if (dispatcher == null || !dispatcher.isAlive()) {
+            dispatcher = new Thread(this::dispatch, "crawl-dispatcher");
+            dispatcher.setDaemon(true);
+            dispatcher.start();
+        }
+    }
+
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            boolean dispatched = false;
+            for (SiteCrawl siteCrawl : siteCrawls) {
+                dispatched |= dispatchNext(siteCrawl);
+            }
+
+            if (!dispatched && !waitForSignal()) {
+                return;
+            }
+        }
+    }
+
+    private boolean dispatchNext(SiteCrawl siteCrawl) {
+        if (stopFlag || siteCrawl.isInterrupted()) {
+            while (siteCrawl.poll() != null) {
+                siteCrawl.pageFinished();
+            }
+            return false;
+        }
+
+        if (!hasDownstreamCapacity() || !siteCrawl.getFetchShare().tryAcquire()) {
+            return false;
+        }
+
+        FrontierEntry frontierEntry = siteCrawl.poll();
+        if (frontierEntry == null) {
+            siteCrawl.getFetchShare().release();
+            return false;
+        }
+
+        PageParseTask task = new PageParseTask(siteCrawl, frontierEntry);
+        fetchStage.submit(() -> fetch(task));
+        return true;
+    }
+
+    private boolean hasDownstreamCapacity() {
+        return fetchStage.hasCapacity() && parseStage.hasCapacity() && lemmaStage.hasCapacity()
+                && persistStage.hasCapacity();
+    }
+
+    private void fetch(PageParseTask task) {
+        SiteCrawl siteCrawl = task.getSiteCrawl();
+        try {
+            if (siteCrawl.isStoredPageLookupNeeded()) {
+                pageService.getPageByPathAndSite(task.getShortUrl(), siteCrawl.getSite())
+                        .ifPresent(task::setStoredPage);
+            }
+        } catch (RuntimeException e) {
+            siteCrawl.getFetchShare().release();
+            fail(task, e);
+            return;
+        }
+
+        if (task.getStoredPage() != null && !siteCrawl.isIncremental()) {
+            siteCrawl.getFetchShare().release();
+            parseStage.submit(() -> parseStoredPage(task));
+            return;
+        }
+
+        inFlightFetches.incrementAndGet();
+        fetchStage.reserve();
+        pageService.fetchUrlInfo(task.getUrl(), task.getStoredPage())
+                .whenCompleteAsync((urlInfo, throwable) -> {
+                    inFlightFetches.decrementAndGet();
+                    siteCrawl.getFetchShare().release();
+                    if (throwable != null) {
+                        fail(task, throwable instanceof CompletionException ? throwable.getCause() : throwable);
+                    } else {
+                        task.setUrlInfo(urlInfo);
+                        parseStage.submit(() -> parse(task));
+                    }
+                    signalDispatcher();
+                }, fetchStage::handoff);
+    }
+
+    private void parse(PageParseTask task) {
+        if (isCancelled(task)) {
+            return;
+        }
+
+        try {
+            UrlInfo urlInfo = pageService.parseUrlInfo(task.getUrlInfo());
+            Page storedPage = task.getStoredPage();
+            if (storedPage != null && !pageService.isPageContentChanged(storedPage, urlInfo)) {
+                enqueueLinks(task, Jsoup.parse(pageService.getPageContent(storedPage), task.getUrl()));
+                completeTask(task);
+                return;
+            }
+
+            Document document = urlInfo.getDocument();
+            if (document == null) {
+                completeTask(task);
+                return;
+            }
+
+            enqueueLinks(task, document);
+            if (urlInfo.getCodeStatus() < 400) {
+                lemmaStage.submit(() -> lemmatize(task));
+            } else {
+                persistStage.submit(task);
+            }
+        } catch (RuntimeException e) {
+            fail(task, e);
+        }
+    }
+
+    private void parseStoredPage(PageParseTask task) {
+        if (isCancelled(task)) {
+            return;
+        }
+
+        try {
+            enqueueLinks(task, Jsoup.parse(pageService.getPageContent(task.getStoredPage()), task.getUrl()));
+            completeTask(task);
+        } catch (RuntimeException e) {
+            fail(task, e);
+        }
+    }
+
+    private void lemmatize(PageParseTask task) {
+        if (isCancelled(task)) {
+            return;
+        }
+
+        try {
+            task.setLemmaStatistics(lemmaService.getQuantityLemmasInTheText(task.getUrlInfo().getText()));
+            persistStage.submit(task);
+        } catch (RuntimeException e) {
+            fail(task, e);
+        }
+    }
+
+    private void persist(List<PageParseTask> batch) {
+        Map<SiteCrawl, List<PageParseTask>> siteTasks = new LinkedHashMap<>();
+        for (PageParseTask task : batch) {
+            if (!isCancelled(task)) {
+                siteTasks.computeIfAbsent(task.getSiteCrawl(), siteCrawl -> new ArrayList<>()).add(task);
+            }
+        }
+
+        siteTasks.forEach(this::persistSitePages);
+    }
+
+    private void persistSitePages(SiteCrawl siteCrawl, List<PageParseTask> tasks) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> tasks.forEach(this::persistPage));
+            updateSiteStatusTime(siteCrawl.getSite());
+        } catch (RuntimeException e) {
+            tasks.forEach(task -> fail(task, e));
+            return;
+        }
+
+        for (PageParseTask task : tasks) {
+            try {
+                completeTask(task);
+            } catch (RuntimeException e) {
+                fail(task, e);
+            }
+        }
+    }
+
+    private void persistPage(PageParseTask task) {
+        Site site = task.getSiteCrawl().getSite();
+        UrlInfo urlInfo = task.getUrlInfo();
+        Page page = task.getStoredPage();
+        if (page != null) {
+            lemmaService.removeLemmasAndIndexes(page);
+            pageService.updatePageEntity(page, urlInfo, task.getLemmaStatistics());
+        } else {
+            page = pageService.savePageEntity(site, task.getShortUrl(), urlInfo, task.getLemmaStatistics());
+        }
+
+        if (task.getLemmaStatistics() != null) {
+            lemmaService.saveLemmasAndIndexes(task.getLemmaStatistics(), site, page);
+        }
+    }
+
+    private void enqueueLinks(PageParseTask task, Document document) {
+        SiteCrawl siteCrawl = task.getSiteCrawl();
+        for (Element element : document.select("a")) {
+            Optional<String> link = UrlNormalizer.normalize(element.absUrl("href"));
+
+            if (link.isPresent() && isCorrectLink(siteCrawl, link.get())) {
+                addToFrontier(siteCrawl, FrontierEntry.link(link.get(), task.getDepth() + 1));
+            }
+        }
+        signalDispatcher();
+    }
+
+    private boolean seedFromSitemap(SiteCrawl siteCrawl, FrontierEntry frontierEntry) {
+        if (stopFlag || siteCrawl.isInterrupted()) {
+            return false;
+        }
+
+        UrlNormalizer.normalize(frontierEntry.getUrl())
+                .filter(url -> isCorrectLink(siteCrawl, url))
+                .ifPresent(url -> addToFrontier(siteCrawl, frontierEntry.withUrl(url)));
+        return true;
+    }
+
+    private void addToFrontier(SiteCrawl siteCrawl, FrontierEntry frontierEntry) {
+        if (siteCrawl.claim(frontierEntry.getUrl())) {
+            frontierService.addPendingUrl(siteCrawl.getSite(), frontierEntry);
+            siteCrawl.enqueue(frontierEntry);
+        }
+    }
+
+    private boolean isCorrectLink(SiteCrawl siteCrawl, String link) {
+        return link.startsWith(siteCrawl.getRootUrl()) && !link.contains("@")
+                && !wrongTypes.contains(link.substring(link.lastIndexOf(".") + 1))
+                && politenessScheduler.isAllowed(link);
+    }
+
+    private boolean isCancelled(PageParseTask task) {
+        if (stopFlag || task.getSiteCrawl().isInterrupted()) {
+            task.getSiteCrawl().pageFinished();
+            signalDispatcher();
+            return true;
+        }
+
+        return false;
+    }
+
+    private void completeTask(PageParseTask task) {
+        frontierService.markUrlDone(task.getSiteCrawl().getSite(), task.getUrl());
+        task.getSiteCrawl().pageFinished();
+        signalDispatcher();
+    }
+
+    private void fail(PageParseTask task, Throwable throwable) {
+        SiteCrawl siteCrawl = task.getSiteCrawl();
+        try {
+            if (siteCrawl.interrupt()) {
+                Site site = siteCrawl.getSite();
+                synchronized (site) {
+                    site.setLastError("Ошибка индексации: " + throwable.getMessage() + " - " + task.getUrl());
+                    site.setStatus(Status.FAILED);
+                    siteRepository.save(site);
+                }
+            }
+        } finally {
+            siteCrawl.pageFinished();
+            signalDispatcher();
+        }
+    }
+
+    private void updateSiteStatusTime(Site site) {
+        synchronized (site) {
+            site.setStatusTime(LocalDateTime.now());
+            siteRepository.save(site);
+        }
+    }
+
+    private void signalDispatcher() {
+        synchronized (dispatcherMonitor) {
+            dispatcherMonitor.notifyAll();
+        }
+    }
+
+    private boolean waitForSignal() {
+        synchronized (dispatcherMonitor) {
+            try {
+                dispatcherMonitor.wait(DISPATCHER_IDLE_WAIT_MILLIS);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
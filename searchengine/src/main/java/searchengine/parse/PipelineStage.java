@@ -0,0 +1,72 @@
+package searchengine.parse;
+
+import searchengine.dto.pipeline.StageStatistics;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class PipelineStage {
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger reservedSlots = new AtomicInteger();
+
+    PipelineStage(String name, int threads, int queueCapacity) {
+        this.name = name;
+        AtomicInteger threadNumber = new AtomicInteger();
+        int poolSize = Math.max(1, threads);
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, name + "-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, stageExecutor) -> {
+                    try {
+                        stageExecutor.getQueue().put(runnable);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException(e);
+                    }
+                });
+    }
+
+    void submit(Runnable task) {
+        executor.execute(task);
+    }
+
+    void reserve() {
+        reservedSlots.incrementAndGet();
+    }
+
+    void handoff(Runnable task) {
+        try {
+            executor.execute(task);
+        } finally {
+            reservedSlots.decrementAndGet();
+        }
+    }
+
+    boolean hasCapacity() {
+        return executor.getQueue().remainingCapacity() > reservedSlots.get();
+    }
+
+    StageStatistics getStatistics() {
+        StageStatistics stageStatistics = new StageStatistics();
+        stageStatistics.setName(name);
+        stageStatistics.setThreads(executor.getMaximumPoolSize());
+        stageStatistics.setActiveTasks(executor.getActiveCount());
+        stageStatistics.setQueueDepth(executor.getQueue().size());
+        stageStatistics.setQueueCapacity(executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        stageStatistics.setCompletedTasks(executor.getCompletedTaskCount());
+        return stageStatistics;
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,87 @@
+package searchengine.parse;
+
+import lombok.Getter;
+import searchengine.crawl.FrontierEntry;
+import searchengine.crawl.SiteFetchShare;
+import searchengine.crawl.UrlFingerprintSet;
+import searchengine.crawl.UrlNormalizer;
+import searchengine.dto.indexing.IndexingMode;
+import searchengine.model.Site;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Getter
+public class SiteCrawl {
+
+    private final Site site;
+    private final IndexingMode mode;
+    private final SiteFetchShare fetchShare;
+    private final String rootUrl;
+    private final UrlFingerprintSet visitedUrls = new UrlFingerprintSet();
+    private final PriorityBlockingQueue<FrontierEntry> frontier =
+            new PriorityBlockingQueue<>(64, FrontierEntry.CRAWL_ORDER);
+    private final AtomicInteger pendingPages = new AtomicInteger();
+    private final AtomicBoolean interrupted = new AtomicBoolean();
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    public SiteCrawl(Site site, IndexingMode mode, SiteFetchShare fetchShare) {
+        this.site = site;
+        this.mode = mode;
+        this.fetchShare = fetchShare;
+        rootUrl = UrlNormalizer.getRootPrefix(site.getUrl());
+    }
+
+    public String getStartUrl() {
+        return UrlNormalizer.normalize(site.getUrl()).orElse(site.getUrl());
+    }
+
+    public boolean claim(String url) {
+        return visitedUrls.add(url);
+    }
+
+    public void enqueue(FrontierEntry frontierEntry) {
+        pendingPages.incrementAndGet();
+        frontier.add(frontierEntry);
+    }
+
+    public FrontierEntry poll() {
+        return frontier.poll();
+    }
+
+    public void pageFinished() {
+        if (pendingPages.decrementAndGet() == 0) {
+            completion.complete(null);
+        }
+    }
+
+    public void startSeeding() {
+        pendingPages.incrementAndGet();
+    }
+
+    public void finishSeeding() {
+        pageFinished();
+    }
+
+    public boolean interrupt() {
+        return interrupted.compareAndSet(false, true);
+    }
+
+    public boolean isInterrupted() {
+        return interrupted.get();
+    }
+
+    public boolean isStoredPageLookupNeeded() {
+        return mode != IndexingMode.FULL;
+    }
+
+    public boolean isIncremental() {
+        return mode == IndexingMode.INCREMENTAL;
+    }
+
+    public void awaitCompletion() {
+        completion.join();
+    }
+}
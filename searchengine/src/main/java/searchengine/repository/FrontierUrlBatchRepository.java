@@ -0,0 +1,37 @@
+package searchengine.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import searchengine.model.FrontierUrl;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class FrontierUrlBatchRepository {
+
+    private static final String INSERT_PENDING_SQL =
+            "INSERT IGNORE INTO frontier_url (site_id, fingerprint, url, priority, depth, status) " +
+                    "VALUES (?, ?, ?, ?, ?, 'PENDING')";
+    private static final String MARK_DONE_SQL =
+            "UPDATE frontier_url SET status = 'DONE' WHERE site_id = ? AND fingerprint = ?";
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertPendingUrls(List<FrontierUrl> frontierUrls) {
+        jdbcTemplate.batchUpdate(INSERT_PENDING_SQL, frontierUrls, frontierUrls.size(), (statement, frontierUrl) -> {
+            statement.setInt(1, frontierUrl.getSite().getId());
+            statement.setLong(2, frontierUrl.getFingerprint());
+            statement.setString(3, frontierUrl.getUrl());
+            statement.setDouble(4, frontierUrl.getPriority());
+            statement.setInt(5, frontierUrl.getDepth());
+        });
+    }
+
+    public void markUrlsDone(List<FrontierUrl> frontierUrls) {
+        jdbcTemplate.batchUpdate(MARK_DONE_SQL, frontierUrls, frontierUrls.size(), (statement, frontierUrl) -> {
+            statement.setInt(1, frontierUrl.getSite().getId());
+            statement.setLong(2, frontierUrl.getFingerprint());
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package searchengine.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import searchengine.model.FrontierUrl;
+import searchengine.model.Site;
+import searchengine.model.enums.FrontierStatus;
+
+import java.util.List;
+
+@Repository
+public interface FrontierUrlRepository extends JpaRepository<FrontierUrl, Integer> {
+
+    @Query("SELECT f.url FROM FrontierUrl f WHERE f.site = :site")
+    List<String> findUrlsBySite(@Param("site") Site site);
+
+    List<FrontierUrl> findFrontierUrlsBySiteAndStatus(Site site, FrontierStatus status);
+
+    @Modifying
+    @Query("DELETE FROM FrontierUrl f WHERE f.site = :site")
+    void deleteFrontierUrlsBySite(@Param("site") Site site);
+}
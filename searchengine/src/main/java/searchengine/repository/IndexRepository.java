@@ -4,10 +4,6 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import searchengine.model.Index;
 
-import java.util.List;
-
 @Repository
 public interface IndexRepository extends JpaRepository<Index, Integer> {
-
-    void deleteIndexByIdIn(List<Integer> listIdentifiers);
 }
@@ -1,5 +1,6 @@
 package searchengine.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import searchengine.model.Lemma;
@@ -7,16 +8,13 @@ import searchengine.model.Site;
 
 import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface LemmaRepository extends JpaRepository<Lemma, Integer> {
 
-    Optional<Lemma> findLemmaByLemmaAndSite(String lemma, Site site);
+    List<Lemma> findLemmaBySite(Site site, Pageable pageable);
 
-    void deleteLemmaByIdIn(List<Integer> listIdentifiers);
+    long countLemmasBySite(Site site);
 
-    List<Lemma> findLemmaBySite_UrlAndLemmaInOrderByFrequencyAsc(String site_url, Collection<String> lemma);
-
-    List<Lemma> findLemmaByLemmaInOrderByFrequencyAsc(Collection<String> lemma);
+    List<Lemma> findLemmaBySiteInAndLemmaInOrderByFrequencyAsc(Collection<Site> sites, Collection<String> lemma);
 }
@@ -3,6 +3,7 @@ package searchengine.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import searchengine.model.Site;
+import searchengine.model.enums.GenerationState;
 import searchengine.model.enums.Status;
 
 import java.util.List;
@@ -13,9 +14,14 @@ public interface SiteRepository extends JpaRepository<Site, Integer> {
 
     Optional<Site> findSiteEntityByIdAndStatus(Integer id, Status status);
 
-    Optional<Site> findSiteByUrl(String url);
+    List<Site> findSitesByGenerationState(GenerationState generationState);
 
-    List<Site> findSitesByStatusNotIn(List<Status> statusList);
+    List<Site> findSitesByGenerationStateNot(GenerationState generationState);
 
-    Optional<Site> findSiteByUrlAndStatusIn(String url, List<Status> status);
+    List<Site> findSitesByGenerationStateNotAndStatusNotIn(GenerationState generationState, List<Status> statusList);
+
+    Optional<Site> findSiteByUrlAndGenerationState(String url, GenerationState generationState);
+
+    Optional<Site> findSiteByUrlAndGenerationStateAndStatusIn(String url, GenerationState generationState,
+                                                              List<Status> status);
 }
@@ -0,0 +1,71 @@
+package searchengine.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import searchengine.lemma.HotLemmaCache;
+import searchengine.model.Lemma;
+import searchengine.model.Site;
+import searchengine.repository.LemmaRepository;
+import searchengine.store.IndexStore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class IndexStoreSearch {
+
+    private final LemmaRepository lemmaRepository;
+    private final IndexStore indexStore;
+    private final HotLemmaCache hotLemmaCache;
+
+    public Map<Integer, Double> findPageRelevance(Collection<String> lemmas, List<Site> sites) {
+        Map<Integer, Double> pageRelevance = new HashMap<>();
+        if (lemmas.isEmpty() || sites.isEmpty()) {
+            return pageRelevance;
+        }
+
+        List<Site> uncachedSites = new ArrayList<>();
+        for (Site site : sites) {
+            Optional<List<Integer>> lemmaIds = hotLemmaCache.findLemmaIdsByFrequency(site.getId(), lemmas);
+            if (lemmaIds.isPresent()) {
+                pageRelevance.putAll(intersectPostings(site.getId(), lemmaIds.get()));
+            } else {
+                uncachedSites.add(site);
+            }
+        }
+
+        if (uncachedSites.isEmpty()) {
+            return pageRelevance;
+        }
+
+        Map<Integer, List<Integer>> siteLemmaIds = new LinkedHashMap<>();
+        for (Lemma lemma : lemmaRepository.findLemmaBySiteInAndLemmaInOrderByFrequencyAsc(uncachedSites, lemmas)) {
+            siteLemmaIds.computeIfAbsent(lemma.getSite().getId(), siteId -> new ArrayList<>()).add(lemma.getId());
+        }
+
+        siteLemmaIds.forEach((siteId, lemmaIds) -> {
+            if (lemmaIds.size() == lemmas.size()) {
+                pageRelevance.putAll(intersectPostings(siteId, lemmaIds));
+            }
+        });
+
+        return pageRelevance;
+    }
+
+    private Map<Integer, Double> intersectPostings(int siteId, List<Integer> lemmaIdsByFrequency) {
+        Map<Integer, Double> candidates = indexStore.findPostings(siteId, lemmaIdsByFrequency.get(0));
+        for (int i = 1; i < lemmaIdsByFrequency.size() && !candidates.isEmpty(); i++) {
+            Map<Integer, Double> previousRanks = candidates;
+            candidates = indexStore.findPostings(siteId, lemmaIdsByFrequency.get(i), previousRanks.keySet());
+            candidates.replaceAll((pageId, rank) -> rank + previousRanks.get(pageId));
+        }
+
+        return candidates;
+    }
+}
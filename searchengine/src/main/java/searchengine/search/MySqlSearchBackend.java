@@ -0,0 +1,23 @@
+package searchengine.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import searchengine.model.Site;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "search-settings", name = "backend", havingValue = "mysql", matchIfMissing = true)
+public class MySqlSearchBackend implements SearchBackend {
+
+    private final IndexStoreSearch indexStoreSearch;
+
+    @Override
+    public Map<Integer, Double> findPageRelevance(Collection<String> lemmas, List<Site> sites) {
+        return indexStoreSearch.findPageRelevance(lemmas, sites);
+    }
+}
@@ -0,0 +1,18 @@
+package searchengine.search;
+
+import searchengine.model.Site;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface SearchBackend {
+
+    Map<Integer, Double> findPageRelevance(Collection<String> lemmas, List<Site> sites);
+
+    default void refreshSite(Site site) {
+    }
+
+    default void removeSite(int siteId) {
+    }
+}
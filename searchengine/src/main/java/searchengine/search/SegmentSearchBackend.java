@@ -0,0 +1,75 @@
+package searchengine.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import searchengine.model.Site;
+import searchengine.segment.Segment;
+import searchengine.segment.SegmentIndex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "search-settings", name = "backend", havingValue = "segment")
+public class SegmentSearchBackend implements SearchBackend {
+
+    private final SegmentIndex segmentIndex;
+    private final IndexStoreSearch indexStoreSearch;
+
+    @Override
+    public Map<Integer, Double> findPageRelevance(Collection<String> lemmas, List<Site> sites) {
+        Map<Integer, Double> pageRelevance = new HashMap<>();
+        if (lemmas.isEmpty()) {
+            return pageRelevance;
+        }
+
+        List<Site> sitesWithoutSegment = new ArrayList<>();
+        for (Site site : sites) {
+            Optional<Segment> segment = segmentIndex.acquireSegment(site.getId());
+            if (segment.isEmpty()) {
+                sitesWithoutSegment.add(site);
+                continue;
+            }
+
+            try {
+                segment.get().search(lemmas, pageRelevance);
+            } finally {
+                segment.get().release();
+            }
+        }
+
+        if (!sitesWithoutSegment.isEmpty()) {
+            pageRelevance.putAll(indexStoreSearch.findPageRelevance(lemmas, sitesWithoutSegment));
+        }
+
+        return pageRelevance;
+    }
+
+    @Override
+    public void refreshSite(Site site) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            segmentIndex.scheduleRebuild(site.getId());
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                segmentIndex.scheduleRebuild(site.getId());
+            }
+        });
+    }
+
+    @Override
+    public void removeSite(int siteId) {
+        segmentIndex.remove(siteId);
+    }
+}
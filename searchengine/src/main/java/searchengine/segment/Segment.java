@@ -0,0 +1,196 @@
+package searchengine.segment;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class Segment {
+
+    private static final int HEADER_SIZE = 8;
+    @Getter
+    private final Path directory;
+    @Getter
+    private final int termCount;
+    private final MappedByteBuffer terms;
+    private final MappedByteBuffer postings;
+    private final int termDataOffset;
+    private final AtomicInteger references = new AtomicInteger(1);
+    private volatile Runnable releaseAction = () -> {
+    };
+
+    private Segment(Path directory, MappedByteBuffer terms, MappedByteBuffer postings) throws IOException {
+
+        this.directory = directory;
+        this.terms = terms;
+        this.postings = postings;
+        if (terms.getInt(0) != SegmentFormat.TERMS_MAGIC) {
+            throw new IOException("Некорректный формат сегмента индекса: " + directory);
+        }
+        this.termCount = terms.getInt(4);
+        this.termDataOffset = HEADER_SIZE + termCount * 4;
+    }
+
+    public static Segment open(Path directory) throws IOException {
+        return new Segment(directory,
+                map(directory.resolve(SegmentFormat.TERMS_FILE)),
+                map(directory.resolve(SegmentFormat.POSTINGS_FILE)));
+    }
+
+    public boolean acquire() {
+        int count;
+        do {
+            count = references.get();
+            if (count == 0) {
+                return false;
+            }
+        } while (!references.compareAndSet(count, count + 1));
+
+        return true;
+    }
+
+    public void release() {
+        if (references.decrementAndGet() == 0) {
+            releaseAction.run();
+        }
+    }
+
+    public void retire(Runnable releaseAction) {
+        this.releaseAction = releaseAction;
+        release();
+    }
+
+    public void search(Collection<String> queryTerms, Map<Integer, Double> pageRelevance) {
+        List<TermInfo> termInfos = new ArrayList<>(queryTerms.size());
+        for (String queryTerm : queryTerms) {
+            Optional<TermInfo> termInfo = findTerm(queryTerm.getBytes(StandardCharsets.UTF_8));
+            if (termInfo.isEmpty()) {
+                return;
+            }
+            termInfos.add(termInfo.get());
+        }
+
+        if (termInfos.isEmpty()) {
+            return;
+        }
+        termInfos.sort(Comparator.comparingInt(TermInfo::documentFrequency));
+
+        TermInfo rarestTerm = termInfos.get(0);
+        int[] candidates = decodePageIds(rarestTerm);
+        double[] scores = new double[candidates.length];
+        for (int i = 0; i < candidates.length; i++) {
+            scores[i] = readRank(rarestTerm, i);
+        }
+
+        int candidateCount = candidates.length;
+        for (int termIndex = 1; termIndex < termInfos.size() && candidateCount > 0; termIndex++) {
+            candidateCount = intersect(termInfos.get(termIndex), candidates, scores, candidateCount);
+        }
+
+        for (int i = 0; i < candidateCount; i++) {
+            pageRelevance.merge(candidates[i], scores[i], Double::sum);
+        }
+    }
+
+    private int intersect(TermInfo termInfo, int[] candidates, double[] scores, int candidateCount) {
+        int position = (int) termInfo.postingsOffset();
+        int pageId = 0;
+        int postingIndex = 0;
+        int matchedCount = 0;
+
+        for (int i = 0; i < candidateCount; i++) {
+            int candidate = candidates[i];
+            while (postingIndex < termInfo.documentFrequency() && pageId < candidate) {
+                int value = 0;
+                int shift = 0;
+                byte current;
+                do {
+                    current = postings.get(position++);
+                    value |= (current & 0x7F) << shift;
+                    shift += 7;
+                } while ((current & 0x80) != 0);
+                pageId += value;
+                postingIndex++;
+            }
+
+            if (pageId == candidate && postingIndex > 0) {
+                candidates[matchedCount] = candidate;
+                scores[matchedCount] = scores[i] + readRank(termInfo, postingIndex - 1);
+                matchedCount++;
+            }
+            if (postingIndex == termInfo.documentFrequency() && pageId < candidate) {
+                break;
+            }
+        }
+
+        return matchedCount;
+    }
+
+    private int[] decodePageIds(TermInfo termInfo) {
+        int[] pageIds = new int[termInfo.documentFrequency()];
+        int position = (int) termInfo.postingsOffset();
+        int pageId = 0;
+        for (int i = 0; i < pageIds.length; i++) {
+            int value = 0;
+            int shift = 0;
+            byte current;
+            do {
+                current = postings.get(position++);
+                value |= (current & 0x7F) << shift;
+                shift += 7;
+            } while ((current & 0x80) != 0);
+            pageId += value;
+            pageIds[i] = pageId;
+        }
+
+        return pageIds;
+    }
+
+    private float readRank(TermInfo termInfo, int postingIndex) {
+        int ranksOffset = (int) (termInfo.postingsOffset() + termInfo.postingsLength()
+                - 2L * termInfo.documentFrequency());
+        return SegmentFormat.fromCompactFloat(postings.getShort(ranksOffset + postingIndex * 2));
+    }
+
+    private Optional<TermInfo> findTerm(byte[] term) {
+        int low = 0;
+        int high = termCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int entryOffset = termDataOffset + terms.getInt(HEADER_SIZE + middle * 4);
+            int termLength = terms.getShort(entryOffset) & 0xFFFF;
+            int compare = SegmentFormat.compareTerms(terms, entryOffset + 2, termLength, term);
+            if (compare < 0) {
+                low = middle + 1;
+            } else if (compare > 0) {
+                high = middle - 1;
+            } else {
+                int infoOffset = entryOffset + 2 + termLength;
+                return Optional.of(new TermInfo(terms.getInt(infoOffset), terms.getLong(infoOffset + 4),
+                        terms.getInt(infoOffset + 12)));
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private record TermInfo(int documentFrequency, long postingsOffset, int postingsLength) {
+    }
+}
@@ -0,0 +1,71 @@
+package searchengine.segment;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import searchengine.store.IndexStore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+@Component
+@RequiredArgsConstructor
+public class SegmentBuilder {
+
+    private final IndexStore indexStore;
+
+    public void build(int siteId, Path directory) throws IOException {
+        try (SegmentWriter segmentWriter = new SegmentWriter(directory)) {
+            PostingsAccumulator accumulator = new PostingsAccumulator(segmentWriter);
+            try {
+                indexStore.readSitePostings(siteId, accumulator::add);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            accumulator.flushTerm();
+            segmentWriter.finish();
+        }
+    }
+
+    private static class PostingsAccumulator {
+
+        private final SegmentWriter segmentWriter;
+        private int lemmaId = -1;
+        private String lemma;
+        private int[] pageIds = new int[64];
+        private float[] ranks = new float[64];
+        private int count;
+
+        private PostingsAccumulator(SegmentWriter segmentWriter) {
+            this.segmentWriter = segmentWriter;
+        }
+
+        private void add(int lemmaId, String lemma, int pageId, float rank) {
+            if (lemmaId != this.lemmaId) {
+                flushTerm();
+                this.lemmaId = lemmaId;
+                this.lemma = lemma;
+            }
+            if (count == pageIds.length) {
+                pageIds = Arrays.copyOf(pageIds, count * 2);
+                ranks = Arrays.copyOf(ranks, count * 2);
+            }
+            pageIds[count] = pageId;
+            ranks[count] = rank;
+            count++;
+        }
+
+        private void flushTerm() {
+            if (count == 0) {
+                return;
+            }
+            try {
+                segmentWriter.addTerm(lemma, pageIds, ranks, count);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package searchengine.segment;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+final class SegmentFormat {
+
+    static final int TERMS_MAGIC = 0x53545231;
+    static final String TERMS_FILE = "terms.dat";
+    static final String POSTINGS_FILE = "postings.dat";
+
+    private SegmentFormat() {
+    }
+
+    static short toCompactFloat(float value) {
+        int bits = Float.floatToIntBits(value);
+        int rounding = 0x7FFF + ((bits >>> 16) & 1);
+        return (short) ((bits + rounding) >>> 16);
+    }
+
+    static float fromCompactFloat(short value) {
+        return Float.intBitsToFloat((value & 0xFFFF) << 16);
+    }
+
+    static int compareTerms(ByteBuffer buffer, int offset, int length, byte[] term) {
+        int commonLength = Math.min(length, term.length);
+        for (int i = 0; i < commonLength; i++) {
+            int compare = Integer.compare(buffer.get(offset + i) & 0xFF, term[i] & 0xFF);
+            if (compare != 0) {
+                return compare;
+            }
+        }
+
+        return Integer.compare(length, term.length);
+    }
+
+    static int compareTerms(byte[] first, byte[] second) {
+        return Arrays.compareUnsigned(first, second);
+    }
+}
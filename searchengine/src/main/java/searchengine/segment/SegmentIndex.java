@@ -0,0 +1,159 @@
+package searchengine.segment;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import searchengine.config.SearchConfig;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@Component
+@ConditionalOnProperty(prefix = "search-settings", name = "backend", havingValue = "segment")
+public class SegmentIndex {
+
+    private static final Pattern SEGMENT_DIRECTORY_PATTERN = Pattern.compile("site-(\\d+)-(\\d+)");
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private final SegmentBuilder segmentBuilder;
+    private final Path segmentDirectory;
+    private final Map<Integer, Segment> segments = new ConcurrentHashMap<>();
+    private final AtomicLong nextGeneration = new AtomicLong();
+    private final Set<Integer> scheduledRebuilds = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> missingSegmentBuilds = ConcurrentHashMap.newKeySet();
+    private final ExecutorService buildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "segment-build");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SegmentIndex(SegmentBuilder segmentBuilder, SearchConfig searchConfig) {
+        this.segmentBuilder = segmentBuilder;
+        this.segmentDirectory = Paths.get(searchConfig.getSegmentDirectory());
+    }
+
+    @PostConstruct
+    public void load() throws IOException {
+        Files.createDirectories(segmentDirectory);
+        Map<Integer, Path> latestSegments = new HashMap<>();
+        Map<Integer, Long> latestGenerations = new HashMap<>();
+        for (Path directory : listDirectories()) {
+            Matcher matcher = SEGMENT_DIRECTORY_PATTERN.matcher(directory.getFileName().toString());
+            if (!matcher.matches()) {
+                deleteDirectory(directory);
+                continue;
+            }
+
+            int siteId = Integer.parseInt(matcher.group(1));
+            long generation = Long.parseLong(matcher.group(2));
+            nextGeneration.accumulateAndGet(generation + 1, Math::max);
+            if (generation > latestGenerations.getOrDefault(siteId, -1L)) {
+                Optional.ofNullable(latestSegments.put(siteId, directory)).ifPresent(this::deleteDirectory);
+                latestGenerations.put(siteId, generation);
+            } else {
+                deleteDirectory(directory);
+            }
+        }
+
+        for (Map.Entry<Integer, Path> entry : latestSegments.entrySet()) {
+            segments.put(entry.getKey(), Segment.open(entry.getValue()));
+        }
+    }
+
+    public Optional<Segment> acquireSegment(int siteId) {
+        while (true) {
+            Segment segment = segments.get(siteId);
+            if (segment == null) {
+                if (missingSegmentBuilds.add(siteId)) {
+                    scheduleRebuild(siteId);
+                }
+                return Optional.empty();
+            }
+            if (segment.acquire()) {
+                return Optional.of(segment);
+            }
+        }
+    }
+
+    public void scheduleRebuild(int siteId) {
+        if (scheduledRebuilds.add(siteId)) {
+            buildExecutor.execute(() -> {
+                scheduledRebuilds.remove(siteId);
+                try {
+                    rebuild(siteId);
+                } finally {
+                    missingSegmentBuilds.remove(siteId);
+                }
+            });
+        }
+    }
+
+    public synchronized void rebuild(int siteId) {
+        String directoryName = "site-" + siteId + "-" + nextGeneration.getAndIncrement();
+        Path temporaryDirectory = segmentDirectory.resolve(directoryName + TEMPORARY_SUFFIX);
+        Path directory = segmentDirectory.resolve(directoryName);
+        try {
+            segmentBuilder.build(siteId, temporaryDirectory);
+            Files.move(temporaryDirectory, directory, StandardCopyOption.ATOMIC_MOVE);
+            Segment previousSegment = segments.put(siteId, Segment.open(directory));
+            if (previousSegment != null) {
+                retire(previousSegment);
+            }
+        } catch (IOException e) {
+            deleteDirectory(temporaryDirectory);
+            throw new UncheckedIOException("Не удалось построить сегмент индекса сайта " + siteId, e);
+        }
+    }
+
+    public synchronized void remove(int siteId) {
+        Segment segment = segments.remove(siteId);
+        if (segment != null) {
+            retire(segment);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        buildExecutor.shutdownNow();
+    }
+
+    private void retire(Segment segment) {
+        segment.retire(() -> deleteDirectory(segment.getDirectory()));
+    }
+
+    private List<Path> listDirectories() throws IOException {
+        try (Stream<Path> directories = Files.list(segmentDirectory)) {
+            return directories.filter(Files::isDirectory).toList();
+        }
+    }
+
+    private void deleteDirectory(Path directory) {
+        if (!Files.exists(directory)) {
+            return;
+        }
+
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package searchengine.segment;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+class SegmentWriter implements Closeable {
+
+    private final Path directory;
+    private final DataOutputStream postingsOutput;
+    private final List<TermEntry> termEntries = new ArrayList<>();
+    private long postingsOffset;
+
+    SegmentWriter(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        postingsOutput = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(directory.resolve(SegmentFormat.POSTINGS_FILE))));
+    }
+
+    void addTerm(String term, int[] pageIds, float[] ranks, int count) throws IOException {
+        long startOffset = postingsOffset;
+        int previousPageId = 0;
+        for (int i = 0; i < count; i++) {
+            writeVarInt(pageIds[i] - previousPageId);
+            previousPageId = pageIds[i];
+        }
+        for (int i = 0; i < count; i++) {
+            postingsOutput.writeShort(SegmentFormat.toCompactFloat(ranks[i]));
+            postingsOffset += 2;
+        }
+
+        termEntries.add(new TermEntry(term.getBytes(StandardCharsets.UTF_8), count, startOffset,
+                (int) (postingsOffset - startOffset)));
+    }
+
+    void finish() throws IOException {
+        postingsOutput.flush();
+        writeTerms();
+    }
+
+    @Override
+    public void close() throws IOException {
+        postingsOutput.close();
+    }
+
+    private void writeTerms() throws IOException {
+        termEntries.sort((first, second) -> SegmentFormat.compareTerms(first.term, second.term));
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(directory.resolve(SegmentFormat.TERMS_FILE))))) {
+
+            output.writeInt(SegmentFormat.TERMS_MAGIC);
+            output.writeInt(termEntries.size());
+            int entryOffset = 0;
+            for (TermEntry termEntry : termEntries) {
+                output.writeInt(entryOffset);
+                entryOffset += 2 + termEntry.term.length + 4 + 8 + 4;
+            }
+            for (TermEntry termEntry : termEntries) {
+                output.writeShort(termEntry.term.length);
+                output.write(termEntry.term);
+                output.writeInt(termEntry.documentFrequency);
+                output.writeLong(termEntry.postingsOffset);
+                output.writeInt(termEntry.postingsLength);
+            }
+        }
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            postingsOutput.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+            postingsOffset++;
+        }
+        postingsOutput.writeByte(value);
+        postingsOffset++;
+    }
+
+    private record TermEntry(byte[] term, int documentFrequency, long postingsOffset, int postingsLength) {
+    }
+}
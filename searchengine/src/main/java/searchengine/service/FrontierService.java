@@ -0,0 +1,23 @@
+package searchengine.service;
+
+import searchengine.crawl.FrontierEntry;
+import searchengine.model.Site;
+
+import java.util.List;
+
+public interface FrontierService {
+
+    void addPendingUrl(Site site, FrontierEntry frontierEntry);
+
+    void markUrlDone(Site site, String url);
+
+    void flush();
+
+    List<FrontierEntry> getPendingUrls(Site site);
+
+    List<String> getKnownUrls(Site site);
+
+    void deleteFrontier(Site site);
+
+    void deleteAll();
+}
@@ -0,0 +1,154 @@
+package searchengine.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import searchengine.config.SitesListConfig;
+import searchengine.crawl.FrontierEntry;
+import searchengine.crawl.UrlFingerprint;
+import searchengine.model.FrontierUrl;
+import searchengine.model.Site;
+import searchengine.model.enums.FrontierStatus;
+import searchengine.repository.FrontierUrlBatchRepository;
+import searchengine.repository.FrontierUrlRepository;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FrontierServiceImpl implements FrontierService {
+
+    private final FrontierUrlRepository frontierUrlRepository;
+    private final FrontierUrlBatchRepository frontierUrlBatchRepository;
+    private final SitesListConfig sitesListConfig;
+    private final Queue<FrontierUrl> pendingUrls = new ConcurrentLinkedQueue<>();
+    private final Queue<FrontierUrl> doneUrls = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger bufferedCount = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "frontier-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public void addPendingUrl(Site site, FrontierEntry frontierEntry) {
+        FrontierUrl frontierUrl = createFrontierUrl(site, frontierEntry.getUrl(), FrontierStatus.PENDING);
+        frontierUrl.setPriority(frontierEntry.getPriority());
+        frontierUrl.setDepth(frontierEntry.getDepth());
+        pendingUrls.add(frontierUrl);
+        flushIfBatchIsFull();
+    }
+
+    @Override
+    public void markUrlDone(Site site, String url) {
+        doneUrls.add(createFrontierUrl(site, url, FrontierStatus.DONE));
+        flushIfBatchIsFull();
+    }
+
+    @Scheduled(fixedDelayString = "${indexing-settings.frontierFlushInterval:5000}")
+    @Override
+    public synchronized void flush() {
+        List<FrontierUrl> doneBatch = drain(doneUrls);
+        List<FrontierUrl> pendingBatch = drain(pendingUrls);
+        bufferedCount.addAndGet(-(pendingBatch.size() + doneBatch.size()));
+
+        try {
+            if (!pendingBatch.isEmpty()) {
+                frontierUrlBatchRepository.insertPendingUrls(pendingBatch);
+            }
+        } catch (RuntimeException e) {
+            requeue(pendingUrls, pendingBatch);
+            requeue(doneUrls, doneBatch);
+            throw e;
+        }
+
+        try {
+            if (!doneBatch.isEmpty()) {
+                frontierUrlBatchRepository.markUrlsDone(doneBatch);
+            }
+        } catch (RuntimeException e) {
+            requeue(doneUrls, doneBatch);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<FrontierEntry> getPendingUrls(Site site) {
+        return frontierUrlRepository.findFrontierUrlsBySiteAndStatus(site, FrontierStatus.PENDING).stream()
+                .map(frontierUrl -> new FrontierEntry(frontierUrl.getUrl(), frontierUrl.getPriority(), 0,
+                        frontierUrl.getDepth()))
+                .toList();
+    }
+
+    @Override
+    public List<String> getKnownUrls(Site site) {
+        return frontierUrlRepository.findUrlsBySite(site);
+    }
+
+    @Transactional
+    @Override
+    public void deleteFrontier(Site site) {
+        frontierUrlRepository.deleteFrontierUrlsBySite(site);
+    }
+
+    @Override
+    public synchronized void deleteAll() {
+        bufferedCount.addAndGet(-(drain(pendingUrls).size() + drain(doneUrls).size()));
+        frontierUrlRepository.deleteAllInBatch();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdownNow();
+    }
+
+    private void flushIfBatchIsFull() {
+        if (bufferedCount.incrementAndGet() >= sitesListConfig.getFrontierBatchSize()
+                && flushScheduled.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushScheduled.set(false);
+                try {
+                    flush();
+                } catch (RuntimeException e) {
+                    log.warn("Не удалось сохранить пакет frontier, он будет записан при следующем сбросе", e);
+                }
+            });
+        }
+    }
+
+    private void requeue(Queue<FrontierUrl> queue, List<FrontierUrl> batch) {
+        queue.addAll(batch);
+        bufferedCount.addAndGet(batch.size());
+    }
+
+    private List<FrontierUrl> drain(Queue<FrontierUrl> queue) {
+        List<FrontierUrl> batch = new ArrayList<>();
+        FrontierUrl frontierUrl;
+        while ((frontierUrl = queue.poll()) != null) {
+            batch.add(frontierUrl);
+        }
+
+        return batch;
+    }
+
+    private FrontierUrl createFrontierUrl(Site site, String url, FrontierStatus status) {
+        FrontierUrl frontierUrl = new FrontierUrl();
+        frontierUrl.setSite(site);
+        frontierUrl.setUrl(url);
+        frontierUrl.setFingerprint(UrlFingerprint.of(url));
+        frontierUrl.setStatus(status);
+        return frontierUrl;
+    }
+}
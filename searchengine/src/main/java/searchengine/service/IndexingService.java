@@ -1,13 +1,17 @@
 package searchengine.service;
 
+import searchengine.dto.indexing.IndexingMode;
 import searchengine.dto.indexing.IndexingResponse;
+import searchengine.dto.pipeline.PipelineStatisticsResponse;
 import searchengine.exception.ErrorCustomException;
 
 public interface IndexingService {
 
-    IndexingResponse indexSites() throws ErrorCustomException;
+    IndexingResponse indexSites(IndexingMode mode) throws ErrorCustomException;
 
     IndexingResponse stopSiteIndexing() throws ErrorCustomException;
 
     IndexingResponse indexPage(String url) throws ErrorCustomException;
+
+    PipelineStatisticsResponse getPipelineStatistics();
 }
@@ -1,20 +1,28 @@
 package searchengine.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import searchengine.config.SiteConfig;
 import searchengine.config.SitesListConfig;
+import searchengine.crawl.FetchConcurrencyBudget;
+import searchengine.crawl.FrontierEntry;
+import searchengine.crawl.PolitenessScheduler;
+import searchengine.crawl.SiteFetchShare;
+import searchengine.crawl.UrlNormalizer;
 import searchengine.dto.UrlInfo;
+import searchengine.dto.indexing.IndexingMode;
 import searchengine.dto.indexing.IndexingResponse;
+import searchengine.dto.pipeline.PipelineStatisticsResponse;
 import searchengine.exception.ErrorCustomException;
-import searchengine.model.Lemma;
+import searchengine.lemma.LemmaDictionary;
 import searchengine.model.Page;
 import searchengine.model.Site;
 import searchengine.model.enums.Status;
 import searchengine.repository.SiteRepository;
-import searchengine.parse.PageParseTask;
+import searchengine.parse.CrawlPipeline;
+import searchengine.parse.SiteCrawl;
+import searchengine.search.SearchBackend;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
@@ -28,28 +36,38 @@ public class IndexingServiceImpl implements IndexingService {
     private final SiteRepository siteRepository;
     private final PageServiceImpl pageService;
     private final LemmaService lemmaService;
+    private final PolitenessScheduler politenessScheduler;
+    private final FrontierService frontierService;
+    private final FetchConcurrencyBudget fetchConcurrencyBudget;
+    private final CrawlPipeline crawlPipeline;
+    private final LemmaDictionary lemmaDictionary;
+    private final SearchBackend searchBackend;
+    private final PurgeService purgeService;
+    private final SiteGenerationService siteGenerationService;
     private final SitesListConfig sites;
-    @Value("#{'${wrong-types}'.split(',')}")
-    private final List<String> wrongTypes;
-    private static final int PARALLELISM = 2;
     private final List<Future<?>> futures = new ArrayList<>();
-    private ExecutorService executor = Executors.newFixedThreadPool(PARALLELISM);
+    private ExecutorService executor;
 
     @Override
-    public IndexingResponse indexSites() throws ErrorCustomException {
+    public IndexingResponse indexSites(IndexingMode mode) throws ErrorCustomException {
         if (isIndexingStarted()) {
             throw new ErrorCustomException("Индексация уже запущена.");
         }
 
         futures.clear();
-        siteRepository.deleteAll();
+        crawlPipeline.setStopFlag(false);
+        politenessScheduler.reset();
+        if (mode == IndexingMode.FULL) {
+            frontierService.deleteAll();
+        }
+        siteGenerationService.retireUnconfiguredSites(sites.getSiteConfigs().stream()
+                .map(SiteConfig::getUrl)
+                .toList());
         List<Thread> threadList = new ArrayList<>();
         List<SiteConfig> siteConfigList = sites.getSiteConfigs();
-        siteConfigList.forEach(siteConfig -> threadList.add(new Thread(() -> indexSite(siteConfig))));
+        siteConfigList.forEach(siteConfig -> threadList.add(new Thread(() -> indexSite(siteConfig, mode))));
 
-        if (executor.isShutdown()) {
-            executor = Executors.newFixedThreadPool(PARALLELISM);
-        }
+        executor = Executors.newFixedThreadPool(Math.max(1, siteConfigList.size()));
         threadList.forEach(thread -> futures.add(executor.submit(thread)));
         executor.shutdown();
         threadList.clear();
@@ -62,18 +80,27 @@ public class IndexingServiceImpl implements IndexingService {
         if (!isIndexingStarted()) {
             throw new ErrorCustomException("Индексация не запущена.");
         }
-        PageParseTask.setStopFlag(true);
+        crawlPipeline.setStopFlag(true);
 
         return createIndexResponse();
     }
 
+    @Override
+    public PipelineStatisticsResponse getPipelineStatistics() {
+        PipelineStatisticsResponse pipelineStatisticsResponse = new PipelineStatisticsResponse();
+        pipelineStatisticsResponse.setResult(true);
+        pipelineStatisticsResponse.setStages(crawlPipeline.getStageStatistics());
+        pipelineStatisticsResponse.setPurge(purgeService.getStatistics());
+        return pipelineStatisticsResponse;
+    }
+
     @Transactional
     @Override
     public IndexingResponse indexPage(String url) throws ErrorCustomException {
         Optional<Site> optionalSite = Optional.empty();
         for (SiteConfig siteConfig : sites.getSiteConfigs()) {
             if (url.startsWith(siteConfig.getUrl())) {
-                optionalSite = Optional.of(createSiteEntity(siteConfig));
+                optionalSite = Optional.of(siteGenerationService.getLiveSite(siteConfig));
                 break;
             }
         }
@@ -85,14 +112,16 @@ public class IndexingServiceImpl implements IndexingService {
 
         try {
             Site site = optionalSite.get();
-            String shortUrl = url.replaceAll(site.getUrl(), "");
+            String normalizedUrl = UrlNormalizer.normalize(url).orElse(url);
+            String shortUrl = UrlNormalizer.getShortUrl(normalizedUrl, UrlNormalizer.getRootPrefix(site.getUrl()));
             removeIndexedPageSiteData(shortUrl, site);
 
-            UrlInfo urlInfo = pageService.getUrlInfoDto(url);
-            Page page = pageService.savePageEntity(site, shortUrl, urlInfo);
-            if (urlInfo.getCodeStatus() < 400) {
-                lemmaService.saveLemmasAndIndexes(urlInfo.getDocument().html(), site, page);
-            }
+            UrlInfo urlInfo = pageService.getUrlInfoDto(normalizedUrl);
+            Map<String, Integer> lemmaStatistics = urlInfo.getCodeStatus() < 400
+                    ? lemmaService.getQuantityLemmasInTheText(urlInfo.getText()) : Map.of();
+            Page page = pageService.savePageEntity(site, shortUrl, urlInfo, lemmaStatistics);
+            lemmaService.saveLemmasAndIndexes(lemmaStatistics, site, page);
+            searchBackend.refreshSite(site);
 
         } catch (IOException e) {
             throw new ErrorCustomException("При попытке получения данных страницы произошла ошибка: " + e.getMessage());
@@ -104,28 +133,7 @@ public class IndexingServiceImpl implements IndexingService {
     private void removeIndexedPageSiteData(String url, Site site) {
         Optional<Page> optionalPage = pageService.getPageByPathAndSite(url, site);
         if (optionalPage.isPresent()) {
-            Page page = optionalPage.get();
-
-            List<Integer> indexIds = new ArrayList<>();
-            List<Lemma> modifiedLemmas = new ArrayList<>();
-            List<Integer> removedLemmaIds = new ArrayList<>();
-
-            page.getIndexEntities().forEach(index -> {
-                indexIds.add(index.getId());
-
-                Lemma lemma = index.getLemma();
-                Integer frequency = lemma.getFrequency();
-                if (frequency > 1) {
-                    lemma.setFrequency(frequency - 1);
-                    modifiedLemmas.add(lemma);
-                } else {
-                    removedLemmaIds.add(lemma.getId());
-                }
-            });
-
-            lemmaService.saveLemmas(modifiedLemmas);
-            lemmaService.deleteLemmaIndexesByIds(indexIds);
-            lemmaService.deleteLemmaByIdIn(removedLemmaIds);
+            lemmaService.removeLemmasAndIndexes(optionalPage.get());
             pageService.deletePageByPath(url, site);
         }
     }
@@ -136,46 +144,69 @@ public class IndexingServiceImpl implements IndexingService {
         return indexingResponse;
     }
 
-    private void indexSite(SiteConfig siteConfig) {
-        Site site = createSiteEntity(siteConfig);
+    private void indexSite(SiteConfig siteConfig, IndexingMode mode) {
+        Site site = siteGenerationService.getCrawlTarget(siteConfig, mode);
 
-        PageParseTask pageParseTask = new PageParseTask(site, wrongTypes);
+        List<String> knownUrls = List.of();
+        List<FrontierEntry> pendingUrls = List.of();
+        if (mode == IndexingMode.RESUME) {
+            if (site.getStatus() == Status.INDEXED) {
+                return;
+            }
+            markSiteAsIndexing(site);
+            knownUrls = frontierService.getKnownUrls(site);
+            pendingUrls = frontierService.getPendingUrls(site);
+        } else if (mode == IndexingMode.INCREMENTAL) {
+            markSiteAsIndexing(site);
+            frontierService.deleteFrontier(site);
+        } else if (sites.isLemmaDictionary()) {
+            lemmaDictionary.open(site.getId());
+        }
 
-        ForkJoinPool pool = new ForkJoinPool(PARALLELISM);
-        pool.invoke(pageParseTask);
-        pool.shutdown();
+        SiteFetchShare fetchShare = fetchConcurrencyBudget.register(site.getId(), siteConfig);
+        try {
+            SiteCrawl siteCrawl = new SiteCrawl(site, mode, fetchShare);
+            crawlPipeline.start(siteCrawl, knownUrls, pendingUrls);
+            siteCrawl.awaitCompletion();
+        } finally {
+            fetchConcurrencyBudget.unregister(site.getId());
+        }
+        frontierService.flush();
 
         checkIfTheStatusNeedsToBeChanged(site);
     }
 
+    private void markSiteAsIndexing(Site site) {
+        site.setStatus(Status.INDEXING);
+        site.setLastError(null);
+        site.setStatusTime(LocalDateTime.now());
+        siteRepository.save(site);
+    }
+
     private void checkIfTheStatusNeedsToBeChanged(Site site) {
+        if (!lemmaDictionary.close(site.getId())) {
+            site.setStatus(Status.FAILED);
+            site.setLastError("Не удалось сохранить леммы и индексы части страниц сайта.");
+            site.setStatusTime(LocalDateTime.now());
+            siteRepository.save(site);
+        }
         Optional<Site> optionalSiteEntity =
                 siteRepository.findSiteEntityByIdAndStatus(site.getId(), Status.FAILED);
 
-        if (optionalSiteEntity.isEmpty() && !PageParseTask.getStopFlag()) {
+        if (optionalSiteEntity.isEmpty() && !crawlPipeline.getStopFlag()) {
             site.setStatus(Status.INDEXED);
             site.setStatusTime(LocalDateTime.now());
             siteRepository.save(site);
-        } else if (optionalSiteEntity.isEmpty() && PageParseTask.getStopFlag()) {
+            frontierService.deleteFrontier(site);
+        } else if (optionalSiteEntity.isEmpty() && crawlPipeline.getStopFlag()) {
             site.setStatus(Status.FAILED);
             site.setLastError("Произведена преднамеренная остановка индексации.");
             site.setStatusTime(LocalDateTime.now());
             siteRepository.save(site);
         }
-    }
 
-    private Site createSiteEntity(SiteConfig siteConfig) {
-        Optional<Site> siteOptional = siteRepository.findSiteByUrl(siteConfig.getUrl());
-        if (siteOptional.isEmpty()) {
-            Site site = new Site();
-            site.setName(siteConfig.getName());
-            site.setUrl(siteConfig.getUrl());
-            site.setStatus(Status.INDEXING);
-            site.setStatusTime(LocalDateTime.now());
-            siteRepository.save(site);
-            return site;
-        } else {
-            return siteOptional.get();
+        if (siteGenerationService.promote(site)) {
+            searchBackend.refreshSite(site);
         }
     }
 
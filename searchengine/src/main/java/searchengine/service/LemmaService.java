@@ -1,25 +1,16 @@
 package searchengine.service;
 
-import searchengine.model.Lemma;
 import searchengine.model.Page;
 import searchengine.model.Site;
 
 import java.util.HashMap;
-import java.util.List;
+import java.util.Map;
 
 public interface LemmaService {
 
     HashMap<String, Integer> getQuantityLemmasInTheText(String text);
 
-    Lemma createOrUpdateLemma(String lemma, Site site);
+    void saveLemmasAndIndexes(Map<String, Integer> lemmaStatistics, Site site, Page page);
 
-    void saveLemmasAndIndexes(String text, Site site, Page page);
-
-    void deleteLemmaByIdIn(List<Integer> listIdentifiers);
-
-    void deleteLemmaIndexesByIds(List<Integer> indexList);
-
-    void saveLemmas(List<Lemma> lemmaList);
-
-    String cleanHtml(String html);
+    void removeLemmasAndIndexes(Page page);
 }
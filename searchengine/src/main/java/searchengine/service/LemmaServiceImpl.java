@@ -2,16 +2,18 @@ package searchengine.service;
 
 import lombok.RequiredArgsConstructor;
 import org.apache.lucene.morphology.LuceneMorphology;
-import org.jsoup.Jsoup;
-import org.jsoup.safety.Cleaner;
-import org.jsoup.safety.Safelist;
 import org.springframework.stereotype.Service;
-import searchengine.model.Index;
-import searchengine.model.Lemma;
+import org.springframework.transaction.annotation.Transactional;
+import searchengine.dto.IndexRow;
+import searchengine.lemma.HotLemmaCache;
+import searchengine.lemma.LemmaDictionary;
+import searchengine.lemma.SiteLemmaDictionary;
 import searchengine.model.Page;
 import searchengine.model.Site;
-import searchengine.repository.IndexRepository;
-import searchengine.repository.LemmaRepository;
+import searchengine.morphology.MorphologyCache;
+import searchengine.morphology.WordScript;
+import searchengine.morphology.WordTokenizer;
+import searchengine.store.IndexStore;
 
 import java.util.*;
 
@@ -21,108 +23,75 @@ public class LemmaServiceImpl implements LemmaService {
 
     private final LuceneMorphology russianLuceneMorphology;
     private final LuceneMorphology englishLuceneMorphology;
-    private final LemmaRepository lemmaRepository;
-    private final IndexRepository indexRepository;
+    private final IndexStore indexStore;
+    private final LemmaDictionary lemmaDictionary;
+    private final MorphologyCache morphologyCache;
+    private final HotLemmaCache hotLemmaCache;
     private static final List<String> INCORRECT_PARTS_OF_SPEECH = List.of("МЕЖД", "СОЮЗ", "ПРЕДЛ", "ЧАСТ",
             "INT", "CONJ", "PREP", "PART");
 
     @Override
     public HashMap<String, Integer> getQuantityLemmasInTheText(String text) {
         HashMap<String, Integer> lemmaStatistics = new HashMap<>();
-        String cleanText = cleanHtml(text);
-        List<String> words = List.of(getAnArrayOfWords(cleanText.trim().toLowerCase()));
-
-        for (String word : words) {
-            addValidWordForms(word, lemmaStatistics);
-        }
+        WordTokenizer.tokenize(text, (word, script) -> addValidWordForms(word, script, lemmaStatistics));
 
         return lemmaStatistics;
     }
 
     @Override
-    public Lemma createOrUpdateLemma(String lemma, Site site) {
-        Optional<Lemma> optionalLemma = lemmaRepository.findLemmaByLemmaAndSite(lemma, site);
-
-        Lemma updatedLemma;
-        if (optionalLemma.isPresent()) {
-            updatedLemma = optionalLemma.get();
-            updatedLemma.setFrequency(updatedLemma.getFrequency() + 1);
-        } else {
-            updatedLemma = new Lemma();
-            updatedLemma.setLemma(lemma);
-            updatedLemma.setFrequency(1);
-            updatedLemma.setSite(site);
+    public void saveLemmasAndIndexes(Map<String, Integer> lemmaStatistics, Site site, Page page) {
+        if (lemmaStatistics.isEmpty()) {
+            return;
         }
 
-        lemmaRepository.save(updatedLemma);
-        return updatedLemma;
-    }
-
-    @Override
-    public void saveLemmasAndIndexes(String text, Site site, Page page) {
-        HashMap<String, Integer> quantityLemmasInTheText = getQuantityLemmasInTheText(text);
-
-        List<Index> indexList = new ArrayList<>();
-        for (Map.Entry<String, Integer> entry : quantityLemmasInTheText.entrySet()) {
-            Lemma lemma = createOrUpdateLemma(entry.getKey(), site);
-
-            Index index = new Index();
-            index.setLemma(lemma);
-            index.setPage(page);
-            index.setRank(Double.valueOf(entry.getValue()));
-            indexList.add(index);
+        Optional<SiteLemmaDictionary> dictionary = lemmaDictionary.getDictionary(site.getId());
+        if (dictionary.isPresent()) {
+            lemmaDictionary.addPage(dictionary.get(), page.getId(), lemmaStatistics);
+            return;
         }
 
-        indexRepository.saveAll(indexList);
-    }
+        List<String> lemmas = new ArrayList<>(lemmaStatistics.keySet());
+        Collections.sort(lemmas);
+        indexStore.upsertLemmas(site.getId(), lemmas);
+        Map<String, Integer> lemmaIds = indexStore.findLemmaIds(site.getId(), lemmas);
 
-    @Override
-    public void deleteLemmaByIdIn(List<Integer> listIdentifiers) {
-        lemmaRepository.deleteLemmaByIdIn(listIdentifiers);
-    }
-
-    @Override
-    public void deleteLemmaIndexesByIds(List<Integer> indexList) {
-        indexRepository.deleteIndexByIdIn(indexList);
-    }
-
-    @Override
-    public void saveLemmas(List<Lemma> lemmaList) {
-        lemmaRepository.saveAll(lemmaList);
+        List<IndexRow> indexRows = new ArrayList<>(lemmaStatistics.size());
+        lemmaStatistics.forEach((lemma, rank) -> {
+            Integer lemmaId = lemmaIds.get(lemma);
+            if (lemmaId != null) {
+                indexRows.add(new IndexRow(site.getId(), page.getId(), lemmaId, rank));
+            }
+        });
+        indexStore.insertIndexes(indexRows);
     }
 
+    @Transactional
     @Override
-    public String cleanHtml(String html) {
-        Cleaner cleaner = new Cleaner(Safelist.none());
-        return cleaner.clean(Jsoup.parse(html)).text();
+    public void removeLemmasAndIndexes(Page page) {
+        lemmaDictionary.flushBeforeDirectUpdate(page.getSite().getId());
+        indexStore.deletePageLemmasAndIndexes(page.getSite().getId(), page.getId());
+        hotLemmaCache.evictSite(page.getSite().getId());
     }
 
-    private void addLemmasToTheCollection(String word, HashMap<String, Integer> lemmaStatistics,
-                                                 LuceneMorphology luceneMorphology) {
+    private void addValidWordForms(String word, WordScript script, HashMap<String, Integer> lemmaStatistics) {
+        if (script == WordScript.MIXED) {
+            return;
+        }
 
-        List<String> wordBaseForms = luceneMorphology.getNormalForms(word);
-        for (String wordForm : wordBaseForms) {
-            if (lemmaStatistics.containsKey(wordForm)) {
-                Integer count = lemmaStatistics.get(wordForm) + 1;
-                lemmaStatistics.put(wordForm, count);
-            } else {
-                lemmaStatistics.put(wordForm, 1);
-            }
+        LuceneMorphology luceneMorphology =
+                script == WordScript.CYRILLIC ? russianLuceneMorphology : englishLuceneMorphology;
+        for (String wordForm : morphologyCache.getNormalForms(word,
+                cachedWord -> resolveNormalForms(cachedWord, luceneMorphology))) {
+            lemmaStatistics.merge(wordForm, 1, Integer::sum);
         }
     }
 
-    private void addValidWordForms(String word, HashMap<String, Integer> lemmaStatistics) {
-        if (isThisACyrillicWord(word)) {
-            if (!partOfSpeechIsCorrect(russianLuceneMorphology, word)) {
-                return;
-            }
-            addLemmasToTheCollection(word, lemmaStatistics, russianLuceneMorphology);
-        } else if (isThisALatinWord(word)) {
-            if (!partOfSpeechIsCorrect(englishLuceneMorphology, word)) {
-                return;
-            }
-            addLemmasToTheCollection(word, lemmaStatistics, englishLuceneMorphology);
+    private List<String> resolveNormalForms(String word, LuceneMorphology luceneMorphology) {
+        if (!partOfSpeechIsCorrect(luceneMorphology, word)) {
+            return List.of();
         }
+
+        return luceneMorphology.getNormalForms(word);
     }
 
     private boolean partOfSpeechIsCorrect(LuceneMorphology luceneMorphology, String word) {
@@ -137,8 +106,10 @@ public class LemmaServiceImpl implements LemmaService {
     }
 
     private boolean isTheWordAllowed(String word) {
-        String[] splitExpression = word.split(" ");
-        String shortPartOfSpeech = splitExpression[1];
+        int partOfSpeechStart = word.indexOf(' ') + 1;
+        int partOfSpeechEnd = word.indexOf(' ', partOfSpeechStart);
+        String shortPartOfSpeech = partOfSpeechEnd == -1 ? word.substring(partOfSpeechStart)
+                : word.substring(partOfSpeechStart, partOfSpeechEnd);
 
         for (String partSpeech : INCORRECT_PARTS_OF_SPEECH) {
             if (shortPartOfSpeech.equals(partSpeech)) {
@@ -148,18 +119,4 @@ public class LemmaServiceImpl implements LemmaService {
 
         return true;
     }
-
-    private boolean isThisACyrillicWord(String word) {
-        String regex = "[а-яА-Я]+";
-        return word.matches(regex);
-    }
-
-    private boolean isThisALatinWord(String word) {
-        String regex = "[a-zA-Z]+";
-        return word.matches(regex);
-    }
-
-    private String[] getAnArrayOfWords(String text) {
-        return text.replaceAll("[^а-яА-Яa-zA-Z\\s]", " ").trim().split("\\s+");
-    }
 }
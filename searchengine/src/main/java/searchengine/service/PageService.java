@@ -5,14 +5,28 @@ import searchengine.model.Page;
 import searchengine.model.Site;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface PageService {
 
-    Page savePageEntity(Site site, String link, UrlInfo urlInfo);
+    Page savePageEntity(Site site, String link, UrlInfo urlInfo, Map<String, Integer> lemmaStatistics);
+
+    Page updatePageEntity(Page page, UrlInfo urlInfo, Map<String, Integer> lemmaStatistics);
+
+    boolean isPageContentChanged(Page page, UrlInfo urlInfo);
 
     UrlInfo getUrlInfoDto(String url) throws IOException;
 
+    UrlInfo getUrlInfoDto(String url, Page cachedPage) throws IOException;
+
+    CompletableFuture<UrlInfo> fetchUrlInfo(String url, Page cachedPage);
+
+    UrlInfo parseUrlInfo(UrlInfo urlInfo);
+
+    String getPageContent(Page page);
+
     void deletePageByPath(String path, Site site);
 
     Optional<Page> getPageByPathAndSite(String path, Site site);
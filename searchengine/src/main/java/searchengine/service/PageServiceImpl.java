@@ -1,50 +1,130 @@
 package searchengine.service;
 
 import lombok.RequiredArgsConstructor;
-import org.jsoup.Connection;
-import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
 import org.springframework.stereotype.Service;
-import searchengine.config.ConnectionPropertiesConfig;
+import searchengine.crawl.PolitenessScheduler;
 import searchengine.dto.UrlInfo;
+import searchengine.fetch.PageContentParser;
+import searchengine.fetch.PageFetcher;
 import searchengine.model.Page;
 import searchengine.model.Site;
 import searchengine.repository.PageRepository;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 @Service
 @RequiredArgsConstructor
 public class PageServiceImpl implements PageService {
 
     private final PageRepository pageRepository;
-    private final ConnectionPropertiesConfig connectionPropertiesConfig;
+    private final PageFetcher pageFetcher;
+    private final PageContentParser pageContentParser;
+    private final PolitenessScheduler politenessScheduler;
+    private static final int NOT_MODIFIED = 304;
+    private static final String NON_CONTENT_ELEMENTS = "script, style, noscript";
 
     @Override
-    public Page savePageEntity(Site site, String link, UrlInfo urlInfo) {
+    public Page savePageEntity(Site site, String link, UrlInfo urlInfo, Map<String, Integer> lemmaStatistics) {
         Page page = new Page();
-        page.setCode(urlInfo.getCodeStatus());
         page.setSite(site);
         page.setPath(link);
-        page.setContent(urlInfo.getDocument().html());
+        fillPageContent(page, urlInfo);
+        fillPageStatistics(page, lemmaStatistics);
+        pageRepository.save(page);
+
+        return page;
+    }
+
+    @Override
+    public Page updatePageEntity(Page page, UrlInfo urlInfo, Map<String, Integer> lemmaStatistics) {
+        fillPageContent(page, urlInfo);
+        fillPageStatistics(page, lemmaStatistics);
         pageRepository.save(page);
 
         return page;
     }
 
+    @Override
+    public boolean isPageContentChanged(Page page, UrlInfo urlInfo) {
+        if (urlInfo.getCodeStatus() == NOT_MODIFIED) {
+            return false;
+        }
+
+        return page.getCode() != urlInfo.getCodeStatus() || page.getContentHash() == null
+                || !page.getContentHash().equals(calculateContentHash(urlInfo.getContent()));
+    }
+
     @Override
     public UrlInfo getUrlInfoDto(String url) throws IOException {
-        UrlInfo urlInfo = new UrlInfo();
-        Connection.Response response = Jsoup.connect(url)
-                .userAgent(connectionPropertiesConfig.getUserAgent())
-                .referrer(connectionPropertiesConfig.getReferer())
-                .ignoreHttpErrors(true)
-                .execute();
+        return getUrlInfoDto(url, null);
+    }
+
+    @Override
+    public UrlInfo getUrlInfoDto(String url, Page cachedPage) throws IOException {
+        UrlInfo urlInfo = awaitUrlInfo(fetchUrlInfo(url, cachedPage));
+        try {
+            return parseUrlInfo(urlInfo);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
 
-        urlInfo.setCodeStatus(response.statusCode());
-        urlInfo.setDocument(response.parse());
+    @Override
+    public CompletableFuture<UrlInfo> fetchUrlInfo(String url, Page cachedPage) {
+        String etag = cachedPage == null ? null : cachedPage.getEtag();
+        String lastModified = cachedPage == null ? null : cachedPage.getLastModified();
+        return politenessScheduler.acquire(url)
+                .thenCompose(permit -> pageFetcher.fetch(url, etag, lastModified))
+                .whenComplete((urlInfo, throwable) -> {
+                    if (urlInfo != null) {
+                        politenessScheduler.registerResponse(url, urlInfo.getCodeStatus());
+                    }
+                });
+    }
+
+    @Override
+    public UrlInfo parseUrlInfo(UrlInfo urlInfo) {
+        if (urlInfo.getBody() == null) {
+            return urlInfo;
+        }
 
-        return urlInfo;
+        try {
+            Document document = pageContentParser.parse(urlInfo);
+            document.select(NON_CONTENT_ELEMENTS).remove();
+            urlInfo.setDocument(document);
+            urlInfo.setContent(document.html());
+            urlInfo.setText(document.body().text());
+            urlInfo.setBody(null);
+            return urlInfo;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String getPageContent(Page page) {
+        try (InflaterInputStream inputStream = new InflaterInputStream(new ByteArrayInputStream(page.getContent()))) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     @Override
@@ -56,4 +136,75 @@ public class PageServiceImpl implements PageService {
     public Optional<Page> getPageByPathAndSite(String path, Site site) {
         return pageRepository.findPageByPathAndSite(path, site);
     }
+
+    private void fillPageContent(Page page, UrlInfo urlInfo) {
+        page.setCode(urlInfo.getCodeStatus());
+        page.setContent(compressContent(urlInfo.getContent()));
+        page.setText(urlInfo.getText());
+        page.setContentHash(calculateContentHash(urlInfo.getContent()));
+        page.setEtag(urlInfo.getEtag());
+        page.setLastModified(urlInfo.getLastModified());
+    }
+
+    private void fillPageStatistics(Page page, Map<String, Integer> lemmaStatistics) {
+        int tokenCount = 0;
+        if (lemmaStatistics != null) {
+            for (int count : lemmaStatistics.values()) {
+                tokenCount += count;
+            }
+        }
+
+        page.setTokenCount(tokenCount);
+    }
+
+    private byte[] compressContent(String content) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(outputStream)) {
+            deflaterOutputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    private String calculateContentHash(String content) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private UrlInfo awaitUrlInfo(CompletableFuture<UrlInfo> urlInfoFuture) throws IOException {
+        try {
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                @Override
+                public boolean block() throws InterruptedException {
+                    try {
+                        urlInfoFuture.get();
+                    } catch (ExecutionException ignored) {
+                    }
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {
+                    return urlInfoFuture.isDone();
+                }
+            });
+
+            return urlInfoFuture.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Ожидание ответа страницы было прервано.");
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() instanceof UncheckedIOException ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException(cause);
+        }
+    }
 }
@@ -0,0 +1,10 @@
+package searchengine.service;
+
+import searchengine.dto.pipeline.PurgeStatistics;
+
+public interface PurgeService {
+
+    void purgeSite(int siteId);
+
+    PurgeStatistics getStatistics();
+}
@@ -0,0 +1,93 @@
+package searchengine.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import searchengine.dto.pipeline.PurgeStatistics;
+import searchengine.lemma.HotLemmaCache;
+import searchengine.search.SearchBackend;
+import searchengine.store.IndexStore;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+public class PurgeServiceImpl implements PurgeService {
+
+    private static final int PURGE_CHUNK_SIZE = 1000;
+    private final IndexStore indexStore;
+    private final SearchBackend searchBackend;
+    private final HotLemmaCache hotLemmaCache;
+    private final AtomicLong deletedRows = new AtomicLong();
+    private volatile boolean running;
+    private volatile String phase = "idle";
+    private volatile Integer siteId;
+    private volatile long startTime;
+    private volatile long endTime;
+
+    @Override
+    public synchronized void purgeSite(int siteId) {
+        start(siteId);
+        try {
+            phase = "index";
+            hotLemmaCache.evictSite(siteId);
+            deletedRows.addAndGet(indexStore.purgeSiteIndex(siteId));
+
+            phase = "page";
+            int lastPageId = 0;
+            List<Integer> pageIds;
+            while (!(pageIds = indexStore.findPageIds(siteId, lastPageId, PURGE_CHUNK_SIZE)).isEmpty()) {
+                deletedRows.addAndGet(indexStore.deletePages(pageIds));
+                lastPageId = pageIds.get(pageIds.size() - 1);
+            }
+
+            phase = "frontier_url";
+            deleteInChunks(() -> indexStore.deleteFrontierUrls(siteId, PURGE_CHUNK_SIZE));
+
+            phase = "site";
+            deletedRows.addAndGet(indexStore.deleteSite(siteId));
+            searchBackend.removeSite(siteId);
+        } finally {
+            finish();
+        }
+    }
+
+    @Override
+    public PurgeStatistics getStatistics() {
+        PurgeStatistics purgeStatistics = new PurgeStatistics();
+        purgeStatistics.setRunning(running);
+        purgeStatistics.setPhase(phase);
+        purgeStatistics.setSiteId(siteId);
+        purgeStatistics.setDeletedRows(deletedRows.get());
+        purgeStatistics.setDurationMillis(startTime == 0 ? 0 : (running ? System.currentTimeMillis() : endTime)
+                - startTime);
+        return purgeStatistics;
+    }
+
+    private void deleteInChunks(ChunkDeletion chunkDeletion) {
+        int deletedInChunk;
+        do {
+            deletedInChunk = chunkDeletion.delete();
+            deletedRows.addAndGet(deletedInChunk);
+        } while (deletedInChunk > 0);
+    }
+
+    private void start(Integer siteId) {
+        this.siteId = siteId;
+        deletedRows.set(0);
+        startTime = System.currentTimeMillis();
+        running = true;
+    }
+
+    private void finish() {
+        endTime = System.currentTimeMillis();
+        running = false;
+        phase = "idle";
+    }
+
+    @FunctionalInterface
+    private interface ChunkDeletion {
+
+        int delete();
+    }
+}
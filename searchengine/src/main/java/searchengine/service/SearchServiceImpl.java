@@ -2,33 +2,37 @@ package searchengine.service;
 
 import lombok.RequiredArgsConstructor;
 import org.jsoup.Jsoup;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import searchengine.config.SearchConfig;
 import searchengine.dto.PageRelevance;
 import searchengine.dto.search.SearchResult;
 import searchengine.dto.search.SearchResultsResponse;
 import searchengine.exception.ErrorCustomException;
-import searchengine.model.Index;
-import searchengine.model.Lemma;
 import searchengine.model.Page;
 import searchengine.model.Site;
+import searchengine.model.enums.GenerationState;
 import searchengine.model.enums.Status;
-import searchengine.repository.LemmaRepository;
 import searchengine.repository.PageRepository;
 import searchengine.repository.SiteRepository;
+import searchengine.search.SearchBackend;
+import searchengine.store.IndexStore;
 
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class SearchServiceImpl implements SearchService {
 
     private final LemmaService lemmaService;
-    private final LemmaRepository lemmaRepository;
+    private final PageService pageService;
+    private final SearchBackend searchBackend;
     private final PageRepository pageRepository;
     private final SiteRepository siteRepository;
+    private final IndexStore indexStore;
+    private final SearchConfig searchConfig;
     private static final int COUNT_CHARACTERS_SNIPPET = 225;
     private int countCharactersSearchQuery;
 
@@ -42,81 +46,129 @@ public class SearchServiceImpl implements SearchService {
 
         countCharactersSearchQuery = query.length();
         Set<String> setLemmasFromSearchQuery = lemmaService.getQuantityLemmasInTheText(query).keySet();
-        int countLemmasFromSearchQuery = setLemmasFromSearchQuery.size();
 
-        List<Integer> lemmaIds = getListOfSortedLemmaIds(site, setLemmasFromSearchQuery);
-        List<Page> pageList = pageRepository.getListOfPagesByListOfLemmaIds(lemmaIds, countLemmasFromSearchQuery);
-        TreeSet<PageRelevance> pageRelevanceTreeSet = performPageRelevanceCalculation(pageList);
+        List<Site> siteList = getListOfSearchSites(site);
+        Map<Integer, Double> pageRelevanceMap = searchBackend.findPageRelevance(setLemmasFromSearchQuery, siteList);
+        normalizeByPageLength(pageRelevanceMap);
 
-        List<SearchResult> searchResultList = formSearchResultList(pageRelevanceTreeSet, query);
-        List<SearchResult> partOfList = getPartOfList(offset, limit, searchResultList);
+        Pageable nextPage = PageRequest.of(offset, limit);
+        int end = (int) Math.min(nextPage.getOffset() + nextPage.getPageSize(), pageRelevanceMap.size());
+        List<PageRelevance> topPageRelevanceList = selectTopPages(pageRelevanceMap, end);
+        int start = Math.min((int) nextPage.getOffset(), topPageRelevanceList.size());
+        double maxSearchRank = topPageRelevanceList.isEmpty() ? 0.0
+                : topPageRelevanceList.get(0).getAbsolutePageRelevance();
 
-        return createSearchResultsResponse(partOfList, searchResultList.size());
-    }
+        List<SearchResult> partOfList =
+                formSearchResultList(topPageRelevanceList.subList(start, end), maxSearchRank, query);
 
-    private List<Integer> getListOfSortedLemmaIds(String site, Set<String> setLemmasFromSearchQuery)
-            throws ErrorCustomException {
+        return createSearchResultsResponse(partOfList, pageRelevanceMap.size());
+    }
 
-        List<Integer> lemmaIds;
+    private List<Site> getListOfSearchSites(String site) throws ErrorCustomException {
         List<Status> statusList = List.of(Status.INDEXED, Status.FAILED);
         if (site.equals("All sites")) {
-            List<Site> siteList = siteRepository.findSitesByStatusNotIn(statusList);
-            if (!siteList.isEmpty()) {
+            List<Site> liveSiteList = siteRepository.findSitesByGenerationState(GenerationState.LIVE);
+            Set<String> liveUrls = liveSiteList.stream()
+                    .filter(liveSite -> statusList.contains(liveSite.getStatus()))
+                    .map(Site::getUrl)
+                    .collect(Collectors.toSet());
+            List<Site> siteList =
+                    siteRepository.findSitesByGenerationStateNotAndStatusNotIn(GenerationState.RETIRED, statusList);
+            if (siteList.stream().anyMatch(unfinishedSite -> !liveUrls.contains(unfinishedSite.getUrl()))) {
                 throw new ErrorCustomException("Все сайты полностью еще не проиндексированы.");
             }
 
-            lemmaIds = lemmaRepository.findLemmaByLemmaInOrderByFrequencyAsc(setLemmasFromSearchQuery)
-                    .stream()
-                    .map(Lemma::getId)
-                    .toList();
-        } else {
-            Optional<Site> optionalSite = siteRepository.findSiteByUrlAndStatusIn(site, statusList);
-            if (optionalSite.isEmpty()) {
-                throw new ErrorCustomException("Указанный сайт еще полностью не проиндексирован.");
+            return liveSiteList;
+        }
+
+        Optional<Site> optionalSite =
+                siteRepository.findSiteByUrlAndGenerationStateAndStatusIn(site, GenerationState.LIVE, statusList);
+        if (optionalSite.isEmpty()) {
+            throw new ErrorCustomException("Указанный сайт еще полностью не проиндексирован.");
+        }
+
+        return List.of(optionalSite.get());
+    }
+
+    private void normalizeByPageLength(Map<Integer, Double> pageRelevanceMap) {
+        double lengthNormalization = searchConfig.getLengthNormalization();
+        if (pageRelevanceMap.isEmpty() || lengthNormalization <= 0) {
+            return;
+        }
+
+        Map<Integer, Integer> tokenCounts = indexStore.findPageTokenCounts(pageRelevanceMap.keySet());
+        double averageTokenCount = tokenCounts.values().stream()
+                .filter(tokenCount -> tokenCount > 0)
+                .mapToInt(Integer::intValue)
+                .average()
+                .orElse(0);
+        if (averageTokenCount == 0) {
+            return;
+        }
+
+        pageRelevanceMap.replaceAll((pageId, absolutePageRelevance) -> {
+            int tokenCount = tokenCounts.getOrDefault(pageId, 0);
+            if (tokenCount <= 0) {
+                return absolutePageRelevance;
             }
+            return absolutePageRelevance
+                    / (1 - lengthNormalization + lengthNormalization * tokenCount / averageTokenCount);
+        });
+    }
 
-            lemmaIds = lemmaRepository.findLemmaBySite_UrlAndLemmaInOrderByFrequencyAsc(site, setLemmasFromSearchQuery)
-                    .stream()
-                    .map(Lemma::getId)
-                    .toList();
+    private List<PageRelevance> selectTopPages(Map<Integer, Double> pageRelevanceMap, int count) {
+        if (count <= 0) {
+            return new ArrayList<>();
         }
 
-        return lemmaIds;
+        PriorityQueue<PageRelevance> topPages = new PriorityQueue<>(count, Comparator.reverseOrder());
+        pageRelevanceMap.forEach((pageId, absolutePageRelevance) -> {
+            PageRelevance pageRelevance = new PageRelevance();
+            pageRelevance.setPageId(pageId);
+            pageRelevance.setAbsolutePageRelevance(absolutePageRelevance);
+            if (topPages.size() < count) {
+                topPages.add(pageRelevance);
+            } else if (pageRelevance.compareTo(topPages.peek()) < 0) {
+                topPages.poll();
+                topPages.add(pageRelevance);
+            }
+        });
+
+        List<PageRelevance> topPageRelevanceList = new ArrayList<>(topPages);
+        Collections.sort(topPageRelevanceList);
+
+        return topPageRelevanceList;
     }
 
-    private List<SearchResult> formSearchResultList(TreeSet<PageRelevance> pageRelevanceTreeSet, String query) {
+    private List<SearchResult> formSearchResultList(List<PageRelevance> pageRelevanceList, double maxSearchRank,
+                                                    String query) {
+
+        List<Integer> pageIds = pageRelevanceList.stream().map(PageRelevance::getPageId).toList();
+        Map<Integer, Page> pages = pageRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Page::getId, page -> page));
+
         List<SearchResult> searchResultList = new ArrayList<>();
-        for (PageRelevance pageRelevance : pageRelevanceTreeSet) {
-            String content = pageRelevance.getPage().getContent();
-            Optional<String> optionalSearchSnippet = searchSnippet(content, query);
-            if (optionalSearchSnippet.isEmpty()) {
+        for (PageRelevance pageRelevance : pageRelevanceList) {
+            Page page = pages.get(pageRelevance.getPageId());
+            if (page == null) {
                 continue;
             }
-            String title = Jsoup.parse(content).title();
+            String snippet = searchSnippet(page.getText(), query).orElseGet(() -> createLeadingSnippet(page.getText()));
+            String title = Jsoup.parse(pageService.getPageContent(page)).title();
 
             SearchResult searchResult = new SearchResult();
-            searchResult.setRelevance(pageRelevance.getRelativePageRelevance());
-            searchResult.setUri(pageRelevance.getPage().getPath());
+            searchResult.setRelevance(pageRelevance.getAbsolutePageRelevance() / maxSearchRank);
+            searchResult.setUri(page.getPath());
             searchResult.setTitle(title);
-            searchResult.setSnippet(optionalSearchSnippet.get());
-            searchResult.setSite(pageRelevance.getPage().getSite().getUrl());
-            searchResult.setSiteName(pageRelevance.getPage().getSite().getName());
+            searchResult.setSnippet(snippet);
+            searchResult.setSite(page.getSite().getUrl());
+            searchResult.setSiteName(page.getSite().getName());
             searchResultList.add(searchResult);
         }
 
         return searchResultList;
     }
 
-    private List<SearchResult> getPartOfList(Integer offset, Integer limit, List<SearchResult> searchResultList) {
-        Pageable nextPage = PageRequest.of(offset, limit);
-        int start = Math.min((int)nextPage.getOffset(), searchResultList.size());
-        int end = Math.min((start + nextPage.getPageSize()), searchResultList.size());
-        PageImpl<SearchResult> page =
-                new PageImpl<>(searchResultList.subList(start, end), nextPage, searchResultList.size());
-
-        return page.getContent();
-    }
-
     private SearchResultsResponse createSearchResultsResponse(List<SearchResult> searchResultList, int totalCount) {
         SearchResultsResponse searchResultsResponse = new SearchResultsResponse();
         searchResultsResponse.setResult(true);
@@ -126,35 +178,8 @@ public class SearchServiceImpl implements SearchService {
         return searchResultsResponse;
     }
 
-    private TreeSet<PageRelevance> performPageRelevanceCalculation(List<Page> pageList) {
-        List<PageRelevance> pageRelevanceList = new ArrayList<>();
-        double maxSearchRank = 0.0;
-        for (Page page : pageList) {
-            List<Index> indexList = page.getIndexEntities();
-            double absolutePageRelevance = indexList.stream()
-                    .mapToDouble(Index::getRank)
-                    .sum();
-
-            maxSearchRank = Math.max(absolutePageRelevance, maxSearchRank);
-
-            PageRelevance pageRelevance = new PageRelevance();
-            pageRelevance.setPage(page);
-            pageRelevance.setAbsolutePageRelevance(absolutePageRelevance);
-            pageRelevanceList.add(pageRelevance);
-        }
-
-        TreeSet<PageRelevance> pageRelevanceTreeSet = new TreeSet<>();
-        for (PageRelevance pageRelevance : pageRelevanceList) {
-            double relativePageRelevance = pageRelevance.getAbsolutePageRelevance() / maxSearchRank;
-            pageRelevance.setRelativePageRelevance(relativePageRelevance);
-            pageRelevanceTreeSet.add(pageRelevance);
-        }
-
-        return pageRelevanceTreeSet;
-    }
-
-    private Optional<String> searchSnippet(String pageContent, String originalSearchText) {
-        StringBuilder cleanedPageContent = new StringBuilder(lemmaService.cleanHtml(pageContent));
+    private Optional<String> searchSnippet(String pageText, String originalSearchText) {
+        StringBuilder cleanedPageContent = new StringBuilder(pageText);
         int lengthCleanedPageContent = cleanedPageContent.length();
         int startIndex = cleanedPageContent.indexOf(originalSearchText);
         if (startIndex == -1) {
@@ -182,4 +207,12 @@ public class SearchServiceImpl implements SearchService {
         String finalSnippet = fragmentTextBuilder.toString().replaceAll(originalSearchText, highlightedMatch);
         return Optional.of(finalSnippet);
     }
+
+    private String createLeadingSnippet(String pageText) {
+        if (pageText.length() > COUNT_CHARACTERS_SNIPPET) {
+            return pageText.substring(0, COUNT_CHARACTERS_SNIPPET) + "...";
+        }
+
+        return pageText;
+    }
 }
@@ -0,0 +1,20 @@
+package searchengine.service;
+
+import searchengine.config.SiteConfig;
+import searchengine.dto.indexing.IndexingMode;
+import searchengine.model.Site;
+
+import java.util.Collection;
+
+public interface SiteGenerationService {
+
+    Site getCrawlTarget(SiteConfig siteConfig, IndexingMode mode);
+
+    Site getLiveSite(SiteConfig siteConfig);
+
+    boolean promote(Site site);
+
+    void retireUnconfiguredSites(Collection<String> configuredUrls);
+
+    void collectRetiredGenerations();
+}
@@ -0,0 +1,143 @@
+package searchengine.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import searchengine.config.SiteConfig;
+import searchengine.dto.indexing.IndexingMode;
+import searchengine.model.Site;
+import searchengine.model.enums.GenerationState;
+import searchengine.model.enums.Status;
+import searchengine.repository.SiteRepository;
+import searchengine.store.IndexStore;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@RequiredArgsConstructor
+public class SiteGenerationServiceImpl implements SiteGenerationService {
+
+    private final SiteRepository siteRepository;
+    private final PurgeService purgeService;
+    private final IndexStore indexStore;
+    private final AtomicBoolean collectionScheduled = new AtomicBoolean();
+    private final ExecutorService collectorExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "generation-gc");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Transactional
+    @Override
+    public Site getCrawlTarget(SiteConfig siteConfig, IndexingMode mode) {
+        Optional<Site> shadowSite =
+                siteRepository.findSiteByUrlAndGenerationState(siteConfig.getUrl(), GenerationState.SHADOW);
+        Optional<Site> liveSite =
+                siteRepository.findSiteByUrlAndGenerationState(siteConfig.getUrl(), GenerationState.LIVE);
+
+        if (mode == IndexingMode.FULL) {
+            shadowSite.ifPresent(this::retire);
+            long generation = liveSite.map(site -> site.getGeneration() + 1).orElse(0L);
+            return createSite(siteConfig, generation, GenerationState.SHADOW);
+        }
+
+        return shadowSite.or(() -> liveSite)
+                .orElseGet(() -> createSite(siteConfig, 0, GenerationState.SHADOW));
+    }
+
+    @Transactional
+    @Override
+    public Site getLiveSite(SiteConfig siteConfig) {
+        return siteRepository.findSiteByUrlAndGenerationState(siteConfig.getUrl(), GenerationState.LIVE)
+                .orElseGet(() -> createSite(siteConfig, 0, GenerationState.LIVE));
+    }
+
+    @Transactional
+    @Override
+    public boolean promote(Site crawledSite) {
+        Site site = siteRepository.findById(crawledSite.getId()).orElse(crawledSite);
+        if (site.getGenerationState() != GenerationState.SHADOW) {
+            return site.getGenerationState() == GenerationState.LIVE;
+        }
+
+        Optional<Site> liveSite =
+                siteRepository.findSiteByUrlAndGenerationState(site.getUrl(), GenerationState.LIVE);
+        if (site.getStatus() != Status.INDEXED && liveSite.isPresent()) {
+            return false;
+        }
+
+        liveSite.ifPresent(this::retire);
+        site.setGenerationState(GenerationState.LIVE);
+        siteRepository.save(site);
+        scheduleCollectionAfterCommit();
+        return true;
+    }
+
+    @Transactional
+    @Override
+    public void retireUnconfiguredSites(Collection<String> configuredUrls) {
+        for (Site site : siteRepository.findSitesByGenerationStateNot(GenerationState.RETIRED)) {
+            if (!configuredUrls.contains(site.getUrl())) {
+                retire(site);
+            }
+        }
+        scheduleCollectionAfterCommit();
+    }
+
+    @Scheduled(fixedDelayString = "${indexing-settings.generationGcInterval:60000}")
+    @Override
+    public void collectRetiredGenerations() {
+        scheduleCollection();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        collectorExecutor.shutdownNow();
+    }
+
+    private void scheduleCollectionAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                scheduleCollection();
+            }
+        });
+    }
+
+    private void scheduleCollection() {
+        if (collectionScheduled.compareAndSet(false, true)) {
+            collectorExecutor.execute(() -> {
+                collectionScheduled.set(false);
+                siteRepository.findSitesByGenerationState(GenerationState.RETIRED)
+                        .forEach(site -> purgeService.purgeSite(site.getId()));
+            });
+        }
+    }
+
+    private void retire(Site site) {
+        site.setGenerationState(GenerationState.RETIRED);
+        siteRepository.save(site);
+    }
+
+    private Site createSite(SiteConfig siteConfig, long generation, GenerationState generationState) {
+        Site site = new Site();
+        site.setName(siteConfig.getName());
+        site.setUrl(siteConfig.getUrl());
+        site.setStatus(Status.INDEXING);
+        site.setStatusTime(LocalDateTime.now());
+        site.setGeneration(generation);
+        site.setGenerationState(generationState);
+        siteRepository.save(site);
+        indexStore.createSitePartitions(site.getId());
+        return site;
+    }
+}
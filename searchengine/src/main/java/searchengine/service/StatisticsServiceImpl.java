@@ -7,21 +7,36 @@ import searchengine.dto.statistics.StatisticsData;
 import searchengine.dto.statistics.StatisticsResponse;
 import searchengine.dto.statistics.TotalStatistics;
 import searchengine.model.Site;
+import searchengine.model.enums.GenerationState;
+import searchengine.morphology.MorphologyCache;
+import searchengine.repository.LemmaRepository;
+import searchengine.repository.PageRepository;
 import searchengine.repository.SiteRepository;
 
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class StatisticsServiceImpl implements StatisticsService {
 
     private final SiteRepository siteRepository;
+    private final PageRepository pageRepository;
+    private final LemmaRepository lemmaRepository;
+    private final MorphologyCache morphologyCache;
 
     @Override
     public StatisticsResponse getStatistics() {
-        List<Site> siteList = siteRepository.findAll();
+        Map<String, Site> currentSites = new LinkedHashMap<>();
+        for (Site site : siteRepository.findSitesByGenerationStateNot(GenerationState.RETIRED)) {
+            if (!currentSites.containsKey(site.getUrl()) || site.getGenerationState() == GenerationState.SHADOW) {
+                currentSites.put(site.getUrl(), site);
+            }
+        }
+        List<Site> siteList = new ArrayList<>(currentSites.values());
 
         TotalStatistics total = new TotalStatistics();
         total.setSites(siteList.size());
@@ -35,11 +50,13 @@ public class StatisticsServiceImpl implements StatisticsService {
             detailedStatisticsItem.setError(site.getLastError());
             detailedStatisticsItem.setStatusTime(site.getStatusTime().atZone(ZoneId.systemDefault())
                     .toInstant().toEpochMilli());
-            detailedStatisticsItem.setPages(site.getPageEntities().size());
-            detailedStatisticsItem.setLemmas(site.getLemmaEntities().size());
+            int pages = (int) pageRepository.countPagesBySite(site);
+            int lemmas = (int) lemmaRepository.countLemmasBySite(site);
+            detailedStatisticsItem.setPages(pages);
+            detailedStatisticsItem.setLemmas(lemmas);
 
-            total.setPages(total.getPages() + site.getPageEntities().size());
-            total.setLemmas(total.getLemmas() + site.getLemmaEntities().size());
+            total.setPages(total.getPages() + pages);
+            total.setLemmas(total.getLemmas() + lemmas);
             detailed.add(detailedStatisticsItem);
         }
 
@@ -51,6 +68,7 @@ public class StatisticsServiceImpl implements StatisticsService {
         StatisticsData data = new StatisticsData();
         data.setTotal(total);
         data.setDetailed(detailed);
+        data.setMorphologyCache(morphologyCache.getStatistics());
         response.setStatistics(data);
         response.setResult(true);
         return response;
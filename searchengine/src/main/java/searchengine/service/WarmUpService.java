@@ -0,0 +1,6 @@
+package searchengine.service;
+
+public interface WarmUpService {
+
+    void warmUp();
+}
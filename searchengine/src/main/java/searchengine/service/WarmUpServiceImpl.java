@@ -0,0 +1,84 @@
+package searchengine.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import searchengine.config.WarmUpConfig;
+import searchengine.exception.ErrorCustomException;
+import searchengine.lemma.HotLemmaCache;
+import searchengine.model.Lemma;
+import searchengine.model.Site;
+import searchengine.model.enums.GenerationState;
+import searchengine.model.enums.Status;
+import searchengine.repository.LemmaRepository;
+import searchengine.repository.SiteRepository;
+
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WarmUpServiceImpl implements WarmUpService, ApplicationRunner {
+
+    private static final String ALL_SITES = "All sites";
+    private static final int WARM_UP_RESULT_LIMIT = 20;
+    private final WarmUpConfig warmUpConfig;
+    private final SiteRepository siteRepository;
+    private final LemmaRepository lemmaRepository;
+    private final HotLemmaCache hotLemmaCache;
+    private final SearchService searchService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    @Override
+    public void warmUp() {
+        if (!warmUpConfig.isEnabled()) {
+            return;
+        }
+
+        try {
+            siteRepository.findSitesByGenerationState(GenerationState.LIVE).stream()
+                    .filter(site -> site.getStatus() == Status.INDEXED)
+                    .forEach(this::preloadSiteLemmas);
+            warmUpConfig.getQueries().forEach(this::runWarmUpQuery);
+        } catch (RuntimeException e) {
+            log.warn("Прогрев приложения прерван", e);
+        }
+    }
+
+    private void preloadSiteLemmas(Site site) {
+        try {
+            preloadLemmas(site);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось прогреть леммы сайта {}", site.getUrl(), e);
+        }
+    }
+
+    private void preloadLemmas(Site site) {
+        if (warmUpConfig.getPreloadLemmas() <= 0) {
+            return;
+        }
+
+        PageRequest mostFrequent = PageRequest.of(0, warmUpConfig.getPreloadLemmas(),
+                Sort.by(Sort.Direction.DESC, "frequency"));
+        long version = hotLemmaCache.getVersion(site.getId());
+        List<Lemma> lemmas = lemmaRepository.findLemmaBySite(site, mostFrequent);
+        hotLemmaCache.put(site.getId(), version, lemmas);
+    }
+
+    private void runWarmUpQuery(String query) {
+        try {
+            searchService.search(query, ALL_SITES, 0, WARM_UP_RESULT_LIMIT);
+        } catch (ErrorCustomException ignored) {
+        } catch (RuntimeException e) {
+            log.warn("Не удалось выполнить прогревочный запрос \"{}\"", query, e);
+        }
+    }
+}
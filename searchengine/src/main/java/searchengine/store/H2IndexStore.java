@@ -0,0 +1,31 @@
+package searchengine.store;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+@Repository
+@ConditionalOnProperty(prefix = "storage-settings", name = "engine", havingValue = "h2")
+public class H2IndexStore extends JdbcIndexStore {
+
+    private static final int STREAMING_FETCH_SIZE = 1000;
+    private static final String DECREMENT_PAGE_LEMMAS_SQL = "UPDATE lemma SET frequency = frequency - 1 " +
+            "WHERE site_id = ? AND id IN (SELECT lemma_id FROM `index` WHERE page_id = ?)";
+
+    public H2IndexStore(JdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    @Override
+    protected String getDecrementPageLemmasSql() {
+        return DECREMENT_PAGE_LEMMAS_SQL;
+    }
+
+    @Override
+    protected void configureStreaming(PreparedStatement statement) throws SQLException {
+        statement.setFetchSize(STREAMING_FETCH_SIZE);
+    }
+}
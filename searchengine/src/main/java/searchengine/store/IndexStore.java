@@ -0,0 +1,40 @@
+package searchengine.store;
+
+import searchengine.dto.IndexRow;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface IndexStore {
+
+    void upsertLemmas(int siteId, List<String> lemmas);
+
+    void addLemmaFrequencies(int siteId, Map<String, Integer> frequencyIncrements);
+
+    Map<String, Integer> findLemmaIds(int siteId, List<String> lemmas);
+
+    void insertIndexes(List<IndexRow> indexRows);
+
+    void deletePageLemmasAndIndexes(int siteId, int pageId);
+
+    Map<Integer, Double> findPostings(int siteId, int lemmaId);
+
+    Map<Integer, Double> findPostings(int siteId, int lemmaId, Collection<Integer> candidatePageIds);
+
+    Map<Integer, Integer> findPageTokenCounts(Collection<Integer> pageIds);
+
+    void readSitePostings(int siteId, SitePostingHandler handler);
+
+    void createSitePartitions(int siteId);
+
+    long purgeSiteIndex(int siteId);
+
+    List<Integer> findPageIds(int siteId, int afterPageId, int limit);
+
+    int deletePages(List<Integer> pageIds);
+
+    int deleteFrontierUrls(int siteId, int limit);
+
+    int deleteSite(int siteId);
+}
@@ -0,0 +1,253 @@
+package searchengine.store;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import searchengine.dto.IndexRow;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public abstract class JdbcIndexStore implements IndexStore {
+
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+    private static final String UPSERT_LEMMAS_SQL_PREFIX = "INSERT INTO lemma (site_id, lemma, frequency) VALUES ";
+    private static final String UPSERT_LEMMAS_SQL_SUFFIX = " ON DUPLICATE KEY UPDATE frequency = frequency + 1";
+    private static final String ADD_FREQUENCIES_SQL_SUFFIX =
+            " ON DUPLICATE KEY UPDATE frequency = frequency + VALUES(frequency)";
+    private static final String SELECT_LEMMA_IDS_SQL_PREFIX = "SELECT id, lemma FROM lemma WHERE site_id = ? AND lemma IN ";
+    private static final String INSERT_INDEX_SQL = "INSERT INTO `index` (site_id, page_id, lemma_id, `rank`) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_PAGE_LEMMA_IDS_SQL = "SELECT lemma_id FROM `index` WHERE site_id = ? AND page_id = ?";
+    private static final String DELETE_PAGE_INDEXES_SQL = "DELETE FROM `index` WHERE site_id = ? AND page_id = ?";
+    private static final String DELETE_UNUSED_LEMMAS_SQL_PREFIX = "DELETE FROM lemma WHERE site_id = ? AND frequency <= 0 AND id IN ";
+    private static final String SELECT_POSTINGS_SQL = "SELECT page_id, `rank` FROM `index` WHERE site_id = ? AND lemma_id = ?";
+    private static final String SELECT_CANDIDATE_POSTINGS_SQL_PREFIX =
+            "SELECT page_id, `rank` FROM `index` WHERE site_id = ? AND lemma_id = ? AND page_id IN ";
+    private static final String SELECT_SITE_POSTINGS_SQL = "SELECT i.lemma_id, l.lemma, i.page_id, i.`rank` " +
+            "FROM `index` i JOIN lemma l ON l.id = i.lemma_id AND l.site_id = i.site_id WHERE i.site_id = ? " +
+            "ORDER BY i.lemma_id, i.page_id";
+    private static final String SELECT_PAGE_TOKEN_COUNTS_SQL_PREFIX = "SELECT id, token_count FROM page WHERE id IN ";
+    private static final String SELECT_PAGE_IDS_SQL =
+            "SELECT id FROM page WHERE site_id = ? AND id > ? ORDER BY id LIMIT ?";
+    private static final String DELETE_PAGES_SQL_PREFIX = "DELETE FROM page WHERE id IN ";
+    private static final String SELECT_SITE_INDEX_IDS_SQL = "SELECT id FROM `index` WHERE site_id = ? LIMIT ?";
+    private static final String DELETE_INDEXES_SQL_PREFIX = "DELETE FROM `index` WHERE id IN ";
+    private static final String SELECT_SITE_LEMMA_IDS_SQL = "SELECT id FROM lemma WHERE site_id = ? LIMIT ?";
+    private static final String DELETE_LEMMAS_SQL_PREFIX = "DELETE FROM lemma WHERE id IN ";
+    private static final String SELECT_FRONTIER_URL_IDS_SQL = "SELECT id FROM frontier_url WHERE site_id = ? LIMIT ?";
+    private static final String DELETE_FRONTIER_URLS_SQL_PREFIX = "DELETE FROM frontier_url WHERE id IN ";
+    private static final String DELETE_SITE_SQL = "DELETE FROM site WHERE id = ?";
+    protected final JdbcTemplate jdbcTemplate;
+
+    protected JdbcIndexStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    protected abstract String getDecrementPageLemmasSql();
+
+    protected abstract void configureStreaming(PreparedStatement statement) throws SQLException;
+
+    @Override
+    public void upsertLemmas(int siteId, List<String> lemmas) {
+        for (List<String> chunk : partition(lemmas)) {
+            String sql = UPSERT_LEMMAS_SQL_PREFIX + String.join(", ", Collections.nCopies(chunk.size(), "(?, ?, 1)"))
+                    + UPSERT_LEMMAS_SQL_SUFFIX;
+            Object[] parameters = new Object[chunk.size() * 2];
+            for (int i = 0; i < chunk.size(); i++) {
+                parameters[i * 2] = siteId;
+                parameters[i * 2 + 1] = chunk.get(i);
+            }
+            jdbcTemplate.update(sql, parameters);
+        }
+    }
+
+    @Override
+    public void addLemmaFrequencies(int siteId, Map<String, Integer> frequencyIncrements) {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(frequencyIncrements.entrySet());
+        for (List<Map.Entry<String, Integer>> chunk : partition(entries)) {
+            String sql = UPSERT_LEMMAS_SQL_PREFIX + String.join(", ", Collections.nCopies(chunk.size(), "(?, ?, ?)"))
+                    + ADD_FREQUENCIES_SQL_SUFFIX;
+            Object[] parameters = new Object[chunk.size() * 3];
+            for (int i = 0; i < chunk.size(); i++) {
+                parameters[i * 3] = siteId;
+                parameters[i * 3 + 1] = chunk.get(i).getKey();
+                parameters[i * 3 + 2] = chunk.get(i).getValue();
+            }
+            jdbcTemplate.update(sql, parameters);
+        }
+    }
+
+    @Override
+    public Map<String, Integer> findLemmaIds(int siteId, List<String> lemmas) {
+        Map<String, Integer> lemmaIds = new HashMap<>();
+        for (List<String> chunk : partition(lemmas)) {
+            Object[] parameters = new Object[chunk.size() + 1];
+            parameters[0] = siteId;
+            for (int i = 0; i < chunk.size(); i++) {
+                parameters[i + 1] = chunk.get(i);
+            }
+            jdbcTemplate.query(SELECT_LEMMA_IDS_SQL_PREFIX + createPlaceholders(chunk.size()),
+                    resultSet -> {
+                        lemmaIds.put(resultSet.getString("lemma"), resultSet.getInt("id"));
+                    }, parameters);
+        }
+
+        return lemmaIds;
+    }
+
+    @Override
+    public void insertIndexes(List<IndexRow> indexRows) {
+        jdbcTemplate.batchUpdate(INSERT_INDEX_SQL, indexRows, MAX_ROWS_PER_STATEMENT, (statement, indexRow) -> {
+            statement.setInt(1, indexRow.getSiteId());
+            statement.setInt(2, indexRow.getPageId());
+            statement.setInt(3, indexRow.getLemmaId());
+            statement.setFloat(4, indexRow.getRank());
+        });
+    }
+
+    @Override
+    public void deletePageLemmasAndIndexes(int siteId, int pageId) {
+        List<Integer> lemmaIds = jdbcTemplate.queryForList(SELECT_PAGE_LEMMA_IDS_SQL, Integer.class, siteId, pageId);
+        if (lemmaIds.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.update(getDecrementPageLemmasSql(), siteId, pageId);
+        jdbcTemplate.update(DELETE_PAGE_INDEXES_SQL, siteId, pageId);
+        for (List<Integer> chunk : partition(lemmaIds)) {
+            Object[] parameters = new Object[chunk.size() + 1];
+            parameters[0] = siteId;
+            for (int i = 0; i < chunk.size(); i++) {
+                parameters[i + 1] = chunk.get(i);
+            }
+            jdbcTemplate.update(DELETE_UNUSED_LEMMAS_SQL_PREFIX + createPlaceholders(chunk.size()), parameters);
+        }
+    }
+
+    @Override
+    public Map<Integer, Double> findPostings(int siteId, int lemmaId) {
+        Map<Integer, Double> postings = new HashMap<>();
+        jdbcTemplate.query(SELECT_POSTINGS_SQL, resultSet -> {
+            postings.put(resultSet.getInt(1), resultSet.getDouble(2));
+        }, siteId, lemmaId);
+
+        return postings;
+    }
+
+    @Override
+    public Map<Integer, Double> findPostings(int siteId, int lemmaId, Collection<Integer> candidatePageIds) {
+        Map<Integer, Double> postings = new HashMap<>();
+        for (List<Integer> chunk : partition(new ArrayList<>(candidatePageIds))) {
+            Object[] parameters = new Object[chunk.size() + 2];
+            parameters[0] = siteId;
+            parameters[1] = lemmaId;
+            for (int i = 0; i < chunk.size(); i++) {
+                parameters[i + 2] = chunk.get(i);
+            }
+            jdbcTemplate.query(SELECT_CANDIDATE_POSTINGS_SQL_PREFIX + createPlaceholders(chunk.size()),
+                    resultSet -> {
+                        postings.put(resultSet.getInt(1), resultSet.getDouble(2));
+                    }, parameters);
+        }
+
+        return postings;
+    }
+
+    @Override
+    public Map<Integer, Integer> findPageTokenCounts(Collection<Integer> pageIds) {
+        Map<Integer, Integer> tokenCounts = new HashMap<>();
+        for (List<Integer> chunk : partition(new ArrayList<>(pageIds))) {
+            jdbcTemplate.query(SELECT_PAGE_TOKEN_COUNTS_SQL_PREFIX + createPlaceholders(chunk.size()),
+                    resultSet -> {
+                        tokenCounts.put(resultSet.getInt(1), resultSet.getInt(2));
+                    }, chunk.toArray());
+        }
+
+        return tokenCounts;
+    }
+
+    @Override
+    public void readSitePostings(int siteId, SitePostingHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_SITE_POSTINGS_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            configureStreaming(statement);
+            statement.setInt(1, siteId);
+            return statement;
+        }, resultSet -> {
+            handler.handle(resultSet.getInt(1), resultSet.getString(2), resultSet.getInt(3), resultSet.getFloat(4));
+        });
+    }
+
+    @Override
+    public List<Integer> findPageIds(int siteId, int afterPageId, int limit) {
+        return jdbcTemplate.queryForList(SELECT_PAGE_IDS_SQL, Integer.class, siteId, afterPageId, limit);
+    }
+
+    @Override
+    public int deletePages(List<Integer> pageIds) {
+        return deleteByIds(DELETE_PAGES_SQL_PREFIX, pageIds);
+    }
+
+    @Override
+    public void createSitePartitions(int siteId) {
+    }
+
+    @Override
+    public long purgeSiteIndex(int siteId) {
+        long deletedRows = 0;
+        deletedRows += deleteSiteRowsInChunks(SELECT_SITE_INDEX_IDS_SQL, DELETE_INDEXES_SQL_PREFIX, siteId);
+        deletedRows += deleteSiteRowsInChunks(SELECT_SITE_LEMMA_IDS_SQL, DELETE_LEMMAS_SQL_PREFIX, siteId);
+        return deletedRows;
+    }
+
+    @Override
+    public int deleteFrontierUrls(int siteId, int limit) {
+        return deleteByIds(DELETE_FRONTIER_URLS_SQL_PREFIX,
+                jdbcTemplate.queryForList(SELECT_FRONTIER_URL_IDS_SQL, Integer.class, siteId, limit));
+    }
+
+    @Override
+    public int deleteSite(int siteId) {
+        return jdbcTemplate.update(DELETE_SITE_SQL, siteId);
+    }
+
+    private long deleteSiteRowsInChunks(String selectIdsSql, String deleteSqlPrefix, int siteId) {
+        long deletedRows = 0;
+        int deletedInChunk;
+        do {
+            deletedInChunk = deleteByIds(deleteSqlPrefix,
+                    jdbcTemplate.queryForList(selectIdsSql, Integer.class, siteId, MAX_ROWS_PER_STATEMENT));
+            deletedRows += deletedInChunk;
+        } while (deletedInChunk > 0);
+
+        return deletedRows;
+    }
+
+    private int deleteByIds(String sqlPrefix, List<Integer> ids) {
+        int deletedRows = 0;
+        for (List<Integer> chunk : partition(ids)) {
+            deletedRows += jdbcTemplate.update(sqlPrefix + createPlaceholders(chunk.size()), chunk.toArray());
+        }
+
+        return deletedRows;
+    }
+
+    private String createPlaceholders(int count) {
+        return "(" + String.join(", ", Collections.nCopies(count, "?")) + ")";
+    }
+
+    private <T> List<List<T>> partition(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < values.size(); i += MAX_ROWS_PER_STATEMENT) {
+            chunks.add(values.subList(i, Math.min(values.size(), i + MAX_ROWS_PER_STATEMENT)));
+        }
+
+        return chunks;
+    }
+}
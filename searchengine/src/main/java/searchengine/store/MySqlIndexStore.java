@@ -0,0 +1,101 @@
+package searchengine.store;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+@Repository
+@ConditionalOnProperty(prefix = "storage-settings", name = "engine", havingValue = "mysql", matchIfMissing = true)
+public class MySqlIndexStore extends JdbcIndexStore {
+
+    private static final String DECREMENT_PAGE_LEMMAS_SQL = "UPDATE lemma l JOIN `index` i " +
+            "ON i.lemma_id = l.id AND i.site_id = l.site_id " +
+            "SET l.frequency = l.frequency - 1 WHERE i.site_id = ? AND i.page_id = ?";
+    private static final String PARTITION_EXISTS_SQL = "SELECT COUNT(*) FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME = ?";
+    private static final List<String> PARTITIONED_TABLES = List.of("lemma", "index");
+    private final DataSource dataSource;
+
+    public MySqlIndexStore(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+        super(jdbcTemplate);
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void createSitePartitions(int siteId) {
+        String partitionName = getPartitionName(siteId);
+        executeOutsideTransaction(connection -> {
+            for (String table : PARTITIONED_TABLES) {
+                if (!partitionExists(connection, table, partitionName)) {
+                    execute(connection, "ALTER TABLE `" + table + "` ADD PARTITION (PARTITION " + partitionName
+                            + " VALUES IN (" + siteId + "))");
+                }
+            }
+        });
+    }
+
+    @Override
+    public long purgeSiteIndex(int siteId) {
+        String partitionName = getPartitionName(siteId);
+        executeOutsideTransaction(connection -> {
+            for (String table : PARTITIONED_TABLES) {
+                if (partitionExists(connection, table, partitionName)) {
+                    execute(connection, "ALTER TABLE `" + table + "` DROP PARTITION " + partitionName);
+                }
+            }
+        });
+        return super.purgeSiteIndex(siteId);
+    }
+
+    @Override
+    protected String getDecrementPageLemmasSql() {
+        return DECREMENT_PAGE_LEMMAS_SQL;
+    }
+
+    @Override
+    protected void configureStreaming(PreparedStatement statement) throws SQLException {
+        statement.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    private String getPartitionName(int siteId) {
+        return "p" + siteId;
+    }
+
+    private void executeOutsideTransaction(ConnectionCallback callback) {
+        try (Connection connection = dataSource.getConnection()) {
+            callback.execute(connection);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Не удалось изменить секции таблиц индекса: " + e.getMessage(), e);
+        }
+    }
+
+    private boolean partitionExists(Connection connection, String table, String partitionName) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(PARTITION_EXISTS_SQL)) {
+            statement.setString(1, table);
+            statement.setString(2, partitionName);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getInt(1) > 0;
+            }
+        }
+    }
+
+    private void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionCallback {
+
+        void execute(Connection connection) throws SQLException;
+    }
+}
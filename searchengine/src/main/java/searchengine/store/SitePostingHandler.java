@@ -0,0 +1,7 @@
+package searchengine.store;
+
+@FunctionalInterface
+public interface SitePostingHandler {
+
+    void handle(int lemmaId, String lemma, int pageId, float rank);
+}
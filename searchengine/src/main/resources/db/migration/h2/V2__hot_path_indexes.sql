@@ -0,0 +1,5 @@
+CREATE INDEX idx_index_lemma_page_rank ON `index` (lemma_id, page_id, `rank`);
+CREATE INDEX idx_index_page_lemma_rank ON `index` (page_id, lemma_id, `rank`);
+CREATE INDEX idx_page_site_path ON page (site_id, path);
+CREATE INDEX idx_lemma_site_frequency ON lemma (site_id, frequency);
+CREATE INDEX idx_frontier_url_site_status ON frontier_url (site_id, status);
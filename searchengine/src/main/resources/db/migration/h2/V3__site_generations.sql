@@ -0,0 +1,3 @@
+ALTER TABLE site ADD COLUMN generation BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE site ADD COLUMN generation_state ENUM('LIVE', 'SHADOW', 'RETIRED') DEFAULT 'LIVE' NOT NULL;
+CREATE INDEX idx_site_url_generation_state ON site (url, generation_state);
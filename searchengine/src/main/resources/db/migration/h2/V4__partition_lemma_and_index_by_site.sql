@@ -0,0 +1,7 @@
+ALTER TABLE `index` ADD COLUMN site_id INT DEFAULT 0 NOT NULL;
+
+UPDATE `index` i SET site_id = COALESCE((SELECT p.site_id FROM page p WHERE p.id = i.page_id), 0);
+
+DELETE FROM `index` WHERE site_id = 0;
+
+CREATE INDEX idx_index_site_lemma_page ON `index` (site_id, lemma_id, page_id, `rank`);
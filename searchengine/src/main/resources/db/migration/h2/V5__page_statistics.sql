@@ -0,0 +1,2 @@
+ALTER TABLE page ADD COLUMN token_count INT DEFAULT 0 NOT NULL;
+ALTER TABLE page ADD COLUMN lemma_count INT DEFAULT 0 NOT NULL;
@@ -0,0 +1,57 @@
+CREATE TABLE IF NOT EXISTS site (
+    id          INT          NOT NULL AUTO_INCREMENT,
+    status      ENUM('INDEXING', 'INDEXED', 'FAILED') NOT NULL,
+    status_time DATETIME     NOT NULL,
+    last_error  TEXT,
+    url         VARCHAR(255) NOT NULL,
+    name        VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS page (
+    id            INT          NOT NULL AUTO_INCREMENT,
+    site_id       INT          NOT NULL,
+    path          TEXT         NOT NULL,
+    code          INT          NOT NULL,
+    content       MEDIUMBLOB   NOT NULL,
+    text          MEDIUMTEXT   NOT NULL,
+    etag          VARCHAR(255),
+    last_modified VARCHAR(64),
+    content_hash  CHAR(64),
+    PRIMARY KEY (id),
+    INDEX path (path(256)),
+    CONSTRAINT fk_page_site FOREIGN KEY (site_id) REFERENCES site (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS lemma (
+    id        INT          NOT NULL AUTO_INCREMENT,
+    site_id   INT          NOT NULL,
+    lemma     VARCHAR(255) COLLATE utf8mb4_bin NOT NULL,
+    frequency INT          NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_lemma_site_lemma UNIQUE (site_id, lemma),
+    CONSTRAINT fk_lemma_site FOREIGN KEY (site_id) REFERENCES site (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS `index` (
+    id       INT   NOT NULL AUTO_INCREMENT,
+    page_id  INT,
+    lemma_id INT,
+    `rank`   FLOAT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_index_page FOREIGN KEY (page_id) REFERENCES page (id),
+    CONSTRAINT fk_index_lemma FOREIGN KEY (lemma_id) REFERENCES lemma (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS frontier_url (
+    id          INT    NOT NULL AUTO_INCREMENT,
+    site_id     INT    NOT NULL,
+    fingerprint BIGINT NOT NULL,
+    url         TEXT   NOT NULL,
+    priority    DOUBLE NOT NULL,
+    depth       INT    NOT NULL,
+    status      ENUM('PENDING', 'DONE') NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_frontier_url_site_fingerprint UNIQUE (site_id, fingerprint),
+    CONSTRAINT fk_frontier_url_site FOREIGN KEY (site_id) REFERENCES site (id)
+) ENGINE = InnoDB;
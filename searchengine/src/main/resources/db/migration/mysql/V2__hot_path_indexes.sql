@@ -0,0 +1,13 @@
+ALTER TABLE `index`
+    ADD INDEX idx_index_lemma_page_rank (lemma_id, page_id, `rank`),
+    ADD INDEX idx_index_page_lemma_rank (page_id, lemma_id, `rank`);
+
+ALTER TABLE page
+    DROP INDEX path,
+    ADD INDEX idx_page_site_path (site_id, path(255));
+
+ALTER TABLE lemma
+    ADD INDEX idx_lemma_site_frequency (site_id, frequency);
+
+ALTER TABLE frontier_url
+    ADD INDEX idx_frontier_url_site_status (site_id, status);
@@ -0,0 +1,4 @@
+ALTER TABLE site
+    ADD COLUMN generation BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN generation_state ENUM('LIVE', 'SHADOW', 'RETIRED') NOT NULL DEFAULT 'LIVE',
+    ADD INDEX idx_site_url_generation_state (url, generation_state);
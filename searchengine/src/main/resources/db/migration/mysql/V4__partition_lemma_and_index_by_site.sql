@@ -0,0 +1,45 @@
+SET SESSION group_concat_max_len = 1048576;
+
+SET @drop_foreign_keys = (
+    SELECT GROUP_CONCAT(CONCAT('DROP FOREIGN KEY `', CONSTRAINT_NAME, '`'))
+    FROM information_schema.REFERENTIAL_CONSTRAINTS
+    WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'index');
+SET @alter_statement = IFNULL(CONCAT('ALTER TABLE `index` ', @drop_foreign_keys), 'DO 0');
+PREPARE alter_statement FROM @alter_statement;
+EXECUTE alter_statement;
+DEALLOCATE PREPARE alter_statement;
+
+SET @drop_foreign_keys = (
+    SELECT GROUP_CONCAT(CONCAT('DROP FOREIGN KEY `', CONSTRAINT_NAME, '`'))
+    FROM information_schema.REFERENTIAL_CONSTRAINTS
+    WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'lemma');
+SET @alter_statement = IFNULL(CONCAT('ALTER TABLE lemma ', @drop_foreign_keys), 'DO 0');
+PREPARE alter_statement FROM @alter_statement;
+EXECUTE alter_statement;
+DEALLOCATE PREPARE alter_statement;
+
+ALTER TABLE `index` ADD COLUMN site_id INT NOT NULL DEFAULT 0 AFTER id;
+
+UPDATE `index` i JOIN page p ON p.id = i.page_id SET i.site_id = p.site_id;
+
+DELETE FROM `index` WHERE site_id = 0;
+
+ALTER TABLE `index` DROP PRIMARY KEY, ADD PRIMARY KEY (id, site_id);
+
+ALTER TABLE lemma DROP PRIMARY KEY, ADD PRIMARY KEY (id, site_id);
+
+SET @site_partitions = (
+    SELECT GROUP_CONCAT(CONCAT('PARTITION p', id, ' VALUES IN (', id, ')') ORDER BY id SEPARATOR ', ')
+    FROM site);
+SET @partitioning = CONCAT('PARTITION BY LIST (site_id) (',
+    CONCAT_WS(', ', 'PARTITION p0 VALUES IN (0)', @site_partitions), ')');
+
+SET @alter_statement = CONCAT('ALTER TABLE lemma ', @partitioning);
+PREPARE alter_statement FROM @alter_statement;
+EXECUTE alter_statement;
+DEALLOCATE PREPARE alter_statement;
+
+SET @alter_statement = CONCAT('ALTER TABLE `index` ', @partitioning);
+PREPARE alter_statement FROM @alter_statement;
+EXECUTE alter_statement;
+DEALLOCATE PREPARE alter_statement;
@@ -0,0 +1,9 @@
+ALTER TABLE page
+    ADD COLUMN token_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN lemma_count INT NOT NULL DEFAULT 0;
+
+UPDATE page p
+    JOIN (SELECT page_id, SUM(`rank`) AS token_count, COUNT(*) AS lemma_count
+          FROM `index` GROUP BY page_id) s ON s.page_id = p.id
+SET p.token_count = s.token_count,
+    p.lemma_count = s.lemma_count;
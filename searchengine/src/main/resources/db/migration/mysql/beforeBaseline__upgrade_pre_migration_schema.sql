@@ -0,0 +1,155 @@
+SET @pre_migration_schema = (
+    SELECT COUNT(*) = 1
+    FROM information_schema.TABLES t
+    WHERE t.TABLE_SCHEMA = DATABASE() AND t.TABLE_NAME = 'page'
+      AND NOT EXISTS (SELECT 1
+                      FROM information_schema.COLUMNS c
+                      WHERE c.TABLE_SCHEMA = t.TABLE_SCHEMA AND c.TABLE_NAME = 'page' AND c.COLUMN_NAME = 'text'));
+
+SET @alter_statement = IF(@pre_migration_schema,
+    'ALTER TABLE page
+         MODIFY COLUMN content MEDIUMBLOB NOT NULL,
+         ADD COLUMN text MEDIUMTEXT NOT NULL AFTER content,
+         ADD COLUMN etag VARCHAR(255) AFTER text,
+         ADD COLUMN last_modified VARCHAR(64) AFTER etag,
+         ADD COLUMN content_hash CHAR(64) AFTER last_modified',
+    'DO 0');
+PREPARE alter_statement FROM @alter_statement;
+EXECUTE alter_statement;
+DEALLOCATE PREPARE alter_statement;
+
+SET @alter_statement = IF(@pre_migration_schema,
+    'UPDATE page
+     SET content = IF(LENGTH(content) = 0, 0x789C030000000001, SUBSTRING(COMPRESS(content), 5))',
+    'DO 0');
+PREPARE alter_statement FROM @alter_statement;
+EXECUTE alter_statement;
+DEALLOCATE PREPARE alter_statement;
+
+SET @drop_foreign_keys = (
+    SELECT GROUP_CONCAT(CONCAT('DROP FOREIGN KEY `', CONSTRAINT_NAME, '`'))
+    FROM information_schema.REFERENTIAL_CONSTRAINTS
+    WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'page');
+SET @alter_statement = IF(@pre_migration_schema AND @drop_foreign_keys IS NOT NULL,
+    CONCAT('ALTER TABLE page ', @drop_foreign_keys), 'DO 0');
+PREPARE alter_statement FROM @alter_statement;
+EXECUTE alter_statement;
+DEALLOCATE PREPARE alter_statement;
+
+SET @alter_statement = IF(@pre_migration_schema,
+    'ALTER TABLE page ADD CONSTRAINT fk_page_site FOREIGN KEY (site_id) REFERENCES site (id)',
+    'DO 0');
+PREPARE alter_statement FROM @alter_statement;
+EXECUTE alter_statement;
+DEALLOCATE PREPARE alter_statement;
+
+SET @alter_statement = IF(@pre_migration_schema,
+    'ALTER TABLE lemma MODIFY COLUMN lemma VARCHAR(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL',
+    'DO 0');
+PREPARE alter_statement FROM @alter_statement;
+EXECUTE alter_statement;
+DEALLOCATE PREPARE alter_statement;
+
+SET @alter_statement = IF(@pre_migration_schema,
+    'UPDATE `index` i
+         JOIN lemma l ON l.id = i.lemma_id
+         JOIN (SELECT site_id, lemma, MIN(id) AS id
+               FROM lemma
+               GROUP BY site_id, lemma
+               HAVING COUNT(*) > 1) d ON d.site_id = l.site_id AND d.lemma = l.lemma
+     SET i.lemma_id = d.id
+     WHERE l.id <> d.id',
+    'DO 0');
+PREPARE alter_statement FROM @alter_statement;
+EXECUTE alter_statement;
+DEALLOCATE PREPARE alter_statement;
+
+SET @alter_statement = IF(@pre_migration_schema,
+    'UPDATE lemma l
+         JOIN (SELECT MIN(id) AS id, SUM(frequency) AS frequency
+               FROM lemma
+               GROUP BY site_id, lemma
+               HAVING COUNT(*) > 1) d ON d.id = l.id
+     SET l.frequency = d.frequency',
+    'DO 0');
+PREPARE alter_statement FROM @alter_statement;
+EXECUTE alter_statement;
+DEALLOCATE PREPARE alter_statement;
+
+SET @alter_statement = IF(@pre_migration_schema,
+    'DELETE l
+     FROM lemma l
+         JOIN (SELECT site_id, lemma, MIN(id) AS id
+               FROM lemma
+               GROUP BY site_id, lemma
+               HAVING COUNT(*) > 1) d ON d.site_id = l.site_id AND d.lemma = l.lemma
+     WHERE l.id <> d.id',
+    'DO 0');
+PREPARE alter_statement FROM @alter_statement;
+EXECUTE alter_statement;
+DEALLOCATE PREPARE alter_statement;
+
+SET @alter_statement = IF(@pre_migration_schema,
+    'ALTER TABLE lemma ADD CONSTRAINT uk_lemma_site_lemma UNIQUE (site_id, lemma)',
+    'DO 0');
+PREPARE alter_statement FROM @alter_statement;
+EXECUTE alter_statement;
+DEALLOCATE PREPARE alter_statement;
+
+CREATE TABLE IF NOT EXISTS site (
+    id          INT          NOT NULL AUTO_INCREMENT,
+    status      ENUM('INDEXING', 'INDEXED', 'FAILED') NOT NULL,
+    status_time DATETIME     NOT NULL,
+    last_error  TEXT,
+    url         VARCHAR(255) NOT NULL,
+    name        VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS page (
+    id            INT          NOT NULL AUTO_INCREMENT,
+    site_id       INT          NOT NULL,
+    path          TEXT         NOT NULL,
+    code          INT          NOT NULL,
+    content       MEDIUMBLOB   NOT NULL,
+    text          MEDIUMTEXT   NOT NULL,
+    etag          VARCHAR(255),
+    last_modified VARCHAR(64),
+    content_hash  CHAR(64),
+    PRIMARY KEY (id),
+    INDEX path (path(256)),
+    CONSTRAINT fk_page_site FOREIGN KEY (site_id) REFERENCES site (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS lemma (
+    id        INT          NOT NULL AUTO_INCREMENT,
+    site_id   INT          NOT NULL,
+    lemma     VARCHAR(255) COLLATE utf8mb4_bin NOT NULL,
+    frequency INT          NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_lemma_site_lemma UNIQUE (site_id, lemma),
+    CONSTRAINT fk_lemma_site FOREIGN KEY (site_id) REFERENCES site (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS `index` (
+    id       INT   NOT NULL AUTO_INCREMENT,
+    page_id  INT,
+    lemma_id INT,
+    `rank`   FLOAT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_index_page FOREIGN KEY (page_id) REFERENCES page (id),
+    CONSTRAINT fk_index_lemma FOREIGN KEY (lemma_id) REFERENCES lemma (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS frontier_url (
+    id          INT    NOT NULL AUTO_INCREMENT,
+    site_id     INT    NOT NULL,
+    fingerprint BIGINT NOT NULL,
+    url         TEXT   NOT NULL,
+    priority    DOUBLE NOT NULL,
+    depth       INT    NOT NULL,
+    status      ENUM('PENDING', 'DONE') NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_frontier_url_site_fingerprint UNIQUE (site_id, fingerprint),
+    CONSTRAINT fk_frontier_url_site FOREIGN KEY (site_id) REFERENCES site (id)
+) ENGINE = InnoDB;
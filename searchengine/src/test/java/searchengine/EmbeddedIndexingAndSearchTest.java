@@ -0,0 +1,137 @@
+package searchengine;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import searchengine.dto.indexing.IndexingMode;
+import searchengine.dto.search.SearchResult;
+import searchengine.dto.search.SearchResultsResponse;
+import searchengine.dto.statistics.TotalStatistics;
+import searchengine.model.Site;
+import searchengine.model.enums.GenerationState;
+import searchengine.model.enums.Status;
+import searchengine.repository.SiteRepository;
+import searchengine.service.IndexingService;
+import searchengine.service.SearchService;
+import searchengine.service.StatisticsService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("embedded")
+class EmbeddedIndexingAndSearchTest {
+
+    private static final long INDEXING_TIMEOUT_MILLIS = 60_000;
+    private static final Map<String, String> PAGES = Map.of(
+            "/", page("Главная", "Добро пожаловать в магазин электроники. "
+                    + "<a href=\"/phones\">Телефоны</a> <a href=\"/laptops\">Ноутбуки</a>"),
+            "/phones", page("Телефоны", "Смартфоны и мобильные телефоны в наличии. Купить смартфон недорого."),
+            "/laptops", page("Ноутбуки", "Ноутбуки для работы и игр. Мощный ноутбук с быстрым процессором."));
+    private static HttpServer server;
+    private static String siteUrl;
+
+    @Autowired
+    private IndexingService indexingService;
+    @Autowired
+    private SearchService searchService;
+    @Autowired
+    private StatisticsService statisticsService;
+    @Autowired
+    private SiteRepository siteRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void siteProperties(DynamicPropertyRegistry registry) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            String body = PAGES.get(exchange.getRequestURI().getPath());
+            byte[] content = (body == null ? "Not found" : body).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(body == null ? 404 : 200, content.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(content);
+            }
+        });
+        server.start();
+        siteUrl = "http://localhost:" + server.getAddress().getPort();
+
+        registry.add("indexing-settings.siteConfigs[0].url", () -> siteUrl);
+        registry.add("indexing-settings.siteConfigs[0].name", () -> "Тестовый магазин");
+        registry.add("indexing-settings.defaultRequestsPerSecond", () -> 100);
+        registry.add("indexing-settings.burst", () -> 10);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void indexesSiteAndPageAndSearchesThroughEmbeddedStore() throws Exception {
+        indexingService.indexSites(IndexingMode.FULL);
+        Site site = awaitIndexedSite();
+
+        SearchResultsResponse phones = searchService.search("смартфон", siteUrl, 0, 10);
+        assertEquals(1, phones.getCount());
+        SearchResult phonesResult = phones.getData().get(0);
+        assertEquals("/phones", phonesResult.getUri());
+        assertEquals("Телефоны", phonesResult.getTitle());
+        assertEquals("Тестовый магазин", phonesResult.getSiteName());
+
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT frequency FROM lemma WHERE site_id = ? AND lemma = 'телефон'", Integer.class, site.getId()));
+
+        TotalStatistics total = statisticsService.getStatistics().getStatistics().getTotal();
+        assertEquals(PAGES.size(), total.getPages());
+        assertEquals(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM lemma WHERE site_id = ?", Integer.class, site.getId()), total.getLemmas());
+
+        indexingService.indexPage(siteUrl + "/laptops");
+
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT frequency FROM lemma WHERE site_id = ? AND lemma = 'ноутбук'", Integer.class, site.getId()));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM page WHERE site_id = ? AND path = '/laptops'", Integer.class, site.getId()));
+
+        SearchResultsResponse laptops = searchService.search("ноутбук процессор", "All sites", 0, 10);
+        assertEquals(1, laptops.getCount());
+        assertEquals("/laptops", laptops.getData().get(0).getUri());
+
+        assertTrue(searchService.search("холодильник", siteUrl, 0, 10).getData().isEmpty());
+    }
+
+    private Site awaitIndexedSite() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + INDEXING_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            Optional<Site> site = siteRepository.findSiteByUrlAndGenerationStateAndStatusIn(siteUrl,
+                    GenerationState.LIVE, List.of(Status.INDEXED, Status.FAILED));
+            if (site.isPresent()) {
+                assertEquals(Status.INDEXED, site.get().getStatus(), site.get().getLastError());
+                return site.get();
+            }
+            Thread.sleep(100);
+        }
+
+        throw new AssertionError("Индексация сайта не завершилась за " + INDEXING_TIMEOUT_MILLIS + " мс.");
+    }
+
+    private static String page(String title, String body) {
+        return "<html><head><title>" + title + "</title></head><body>" + body + "</body></html>";
+    }
+}
@@ -0,0 +1,135 @@
+package searchengine.segment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void compactFloatKeepsSmallIntegerRanksExact() {
+        for (int rank = 0; rank <= 256; rank++) {
+            assertEquals(rank, SegmentFormat.fromCompactFloat(SegmentFormat.toCompactFloat(rank)));
+        }
+    }
+
+    @Test
+    void compactFloatRoundsToNearestWithinPrecision() {
+        for (float rank : new float[]{0.1f, 1.7f, 3.14159f, 1000.5f, 123456.0f}) {
+            float decoded = SegmentFormat.fromCompactFloat(SegmentFormat.toCompactFloat(rank));
+            assertTrue(Math.abs(decoded - rank) <= rank / 256, rank + " -> " + decoded);
+        }
+    }
+
+    @Test
+    void searchRoundTripsPageIdsAcrossVarIntBoundaries() throws IOException {
+        int[] pageIds = {1, 127, 128, 255, 16_383, 16_384, 2_097_151, 2_097_152, Integer.MAX_VALUE};
+        float[] ranks = new float[pageIds.length];
+        for (int i = 0; i < ranks.length; i++) {
+            ranks[i] = i + 1;
+        }
+        Segment segment = writeSegment(Map.of("лемма", new Posting(pageIds, ranks)));
+
+        Map<Integer, Double> pageRelevance = search(segment, List.of("лемма"));
+
+        assertEquals(pageIds.length, pageRelevance.size());
+        for (int i = 0; i < pageIds.length; i++) {
+            assertEquals((double) ranks[i], pageRelevance.get(pageIds[i]));
+        }
+    }
+
+    @Test
+    void searchFindsEveryTermByBinarySearch() throws IOException {
+        Map<String, Posting> postings = new HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            postings.put("term" + i, new Posting(new int[]{i + 1}, new float[]{1}));
+        }
+        postings.put("ёж", new Posting(new int[]{1000}, new float[]{2}));
+        postings.put("яблоко", new Posting(new int[]{1001}, new float[]{3}));
+        postings.put("apple", new Posting(new int[]{1002}, new float[]{4}));
+        Segment segment = writeSegment(postings);
+
+        assertEquals(postings.size(), segment.getTermCount());
+        postings.forEach((term, posting) ->
+                assertEquals(Map.of(posting.pageIds()[0], (double) posting.ranks()[0]), search(segment, List.of(term))));
+        assertTrue(search(segment, List.of("term500")).isEmpty());
+        assertTrue(search(segment, List.of("")).isEmpty());
+    }
+
+    @Test
+    void searchIntersectsPostingsAndSumsQueryRanks() throws IOException {
+        Segment segment = writeSegment(Map.of(
+                "редкий", new Posting(new int[]{5, 40, 300}, new float[]{1, 2, 3}),
+                "частый", new Posting(new int[]{1, 5, 7, 40, 41, 299, 300, 1000}, new float[]{1, 1, 1, 4, 1, 1, 5, 1}),
+                "средний", new Posting(new int[]{2, 5, 300, 1000}, new float[]{7, 8, 9, 10})));
+
+        Map<Integer, Double> pageRelevance = search(segment, List.of("частый", "средний", "редкий"));
+
+        assertEquals(Map.of(5, 10.0, 300, 17.0), pageRelevance);
+    }
+
+    @Test
+    void searchReturnsNothingWhenAnyTermIsMissing() throws IOException {
+        Segment segment = writeSegment(Map.of("один", new Posting(new int[]{1, 2}, new float[]{1, 1})));
+
+        assertTrue(search(segment, List.of("один", "два")).isEmpty());
+    }
+
+    @Test
+    void searchReturnsNothingForDisjointPostings() throws IOException {
+        Segment segment = writeSegment(Map.of(
+                "один", new Posting(new int[]{1, 3, 5}, new float[]{1, 1, 1}),
+                "два", new Posting(new int[]{2, 4, 6}, new float[]{1, 1, 1})));
+
+        assertTrue(search(segment, List.of("один", "два")).isEmpty());
+    }
+
+    @Test
+    void retiredSegmentIsReleasedAfterLastReader() throws IOException {
+        Segment segment = writeSegment(Map.of("лемма", new Posting(new int[]{1}, new float[]{1})));
+        AtomicInteger releases = new AtomicInteger();
+
+        assertTrue(segment.acquire());
+        segment.retire(releases::incrementAndGet);
+        assertEquals(0, releases.get());
+        assertEquals(Map.of(1, 1.0), search(segment, List.of("лемма")));
+
+        segment.release();
+        assertEquals(1, releases.get());
+        assertFalse(segment.acquire());
+    }
+
+    private Segment writeSegment(Map<String, Posting> postings) throws IOException {
+        try (SegmentWriter segmentWriter = new SegmentWriter(directory)) {
+            for (Map.Entry<String, Posting> entry : postings.entrySet()) {
+                Posting posting = entry.getValue();
+                segmentWriter.addTerm(entry.getKey(), posting.pageIds(), posting.ranks(), posting.pageIds().length);
+            }
+            segmentWriter.finish();
+        }
+
+        return Segment.open(directory);
+    }
+
+    private Map<Integer, Double> search(Segment segment, List<String> terms) {
+        Map<Integer, Double> pageRelevance = new HashMap<>();
+        segment.search(terms, pageRelevance);
+        return pageRelevance;
+    }
+
+    private record Posting(int[] pageIds, float[] ranks) {
+    }
+}